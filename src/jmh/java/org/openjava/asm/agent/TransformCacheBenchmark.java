@@ -0,0 +1,76 @@
+package org.openjava.asm.agent;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjava.asm.core.MethodMatcher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 类加载时改写一个类的耗时: 解析并改写(EXPAND_FRAMES + COMPUTE_FRAMES) VS 命中磁盘缓存(计算摘要并读取缓存文件);
+ * 启动阶段改写代码尚未JIT编译, 计算栈帧还需加载超类, 缓存的收益比本基准测试的结果更明显
+ *
+ * 运行: gradle jmh -PjmhIncludes=TransformCacheBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransformCacheBenchmark {
+    private static final String CLASS_NAME = CalculateService.class.getName().replace('.', '/');
+
+    private Path dir;
+    private byte[] classBytes;
+    private MethodMatcher matcher;
+    private TimingTransformer transformer;
+    private TimingTransformer cachedTransformer;
+
+    @Setup
+    public void setup() throws Exception {
+        classBytes = Files.readAllBytes(Paths.get(CalculateService.class.getResource(CalculateService.class.getSimpleName() + ".class").toURI()));
+        dir = Files.createTempDirectory("asm-cache");
+        AgentArgs args = AgentArgs.parse("include=" + CalculateService.class.getName() + ";" + TransformCache.CACHE_OPTION + "=" + dir);
+        TransformRules rules = TransformRules.parse(args);
+        matcher = rules.matchTransform(CLASS_NAME);
+        transformer = new TimingTransformer(args, rules, null);
+        cachedTransformer = new TimingTransformer(args, rules, TransformCache.create(args, rules));
+        cachedTransformer.transform(null, CLASS_NAME, matcher, classBytes); // 写入缓存
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] transform() {
+        return transformer.transform(null, CLASS_NAME, matcher, classBytes);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return cachedTransformer.transform(null, CLASS_NAME, matcher, classBytes);
+    }
+}
@@ -0,0 +1,131 @@
+package org.openjava.asm.core;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * TimeMethodVisitor改写后方法的调用耗时: 原方法 VS 记录每次调用 VS 采样模式(每64次调用记录1次)
+ * VS 可缓存模式(方法ID通过invokedynamic获取)
+ *
+ * 被改写的方法第一个局部变量为long(可缓存模式为int和long), 准备阶段检查记录的耗时, 改写时新增的变量与原方法的变量共用slot时_start被覆盖,
+ * 记录的耗时远大于实际耗时, 此时基准测试直接失败
+ *
+ * 运行: gradle jmh -PjmhIncludes=TimeMethodVisitorBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeMethodVisitorBenchmark {
+    private static final long MAX_EXPECTED_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private LongUnaryOperator plain;
+    private LongUnaryOperator timed;
+    private LongUnaryOperator sampled;
+    private LongUnaryOperator cacheable;
+    private long value;
+
+    @Setup
+    public void setup() throws Exception {
+        plain = new Work();
+        timed = instrument(Work.class, 1, false);
+        sampled = instrument(Work.class, 64, false);
+        cacheable = instrument(IntLongWork.class, 1, true);
+    }
+
+    @Benchmark
+    public long plain() {
+        return plain.applyAsLong(value++);
+    }
+
+    @Benchmark
+    public long timed() {
+        return timed.applyAsLong(value++);
+    }
+
+    @Benchmark
+    public long sampled() {
+        return sampled.applyAsLong(value++);
+    }
+
+    @Benchmark
+    public long cacheable() {
+        return cacheable.applyAsLong(value++);
+    }
+
+    /**
+     * 改写workClass并检查记录的耗时
+     */
+    private static LongUnaryOperator instrument(Class<?> workClass, int sampleRate, boolean cacheable) throws Exception {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        new ClassReader(workClass.getName()).accept(new TimeClassTransformer(Opcodes.ASM9, cw, sampleRate, MethodMatcher.ALL, cacheable),
+            ClassReader.EXPAND_FRAMES);
+        byte[] bytes = cw.toByteArray();
+        Class<?> clazz = new ClassLoader(workClass.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(workClass.getName(), bytes, 0, bytes.length);
+            }
+        }.define();
+        LongUnaryOperator work = (LongUnaryOperator) clazz.getConstructor().newInstance();
+
+        String method = workClass.getName() + ".applyAsLong(J)J";
+        MethodTiming start = TimingRecorder.getTiming(method); // 可缓存模式首次调用时注册, 此时为null
+        long startCount = start == null ? 0 : start.getCount();
+        for (int i = 0; i < 10_000; i++) {
+            work.applyAsLong(i);
+        }
+        MethodTiming timing = TimingRecorder.getTiming(method);
+        if (timing == null || timing.getCount() == startCount || timing.getMaxNanos() > MAX_EXPECTED_NANOS) {
+            throw new IllegalStateException("Corrupted timing of instrumented method: " + timing);
+        }
+        return work;
+    }
+
+    /**
+     * 第一个局部变量为long的方法
+     */
+    public static class Work implements LongUnaryOperator {
+        @Override
+        public long applyAsLong(long operand) {
+            long x = 1_000_000_000_000L;
+            for (int i = 0; i < 8; i++) {
+                x += operand * i;
+            }
+            return x;
+        }
+    }
+
+    /**
+     * 局部变量依次为int和long的方法, 可缓存模式新增的方法ID变量与_start曾与这两个变量共用slot
+     */
+    public static class IntLongWork implements LongUnaryOperator {
+        @Override
+        public long applyAsLong(long operand) {
+            int n = (int) operand & 7;
+            long x = 1_000_000_000_000L;
+            for (int i = 0; i < n; i++) {
+                x += operand * i;
+            }
+            return x;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.openjava.asm.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 改写方法后每次调用增加的耗时: 旧实现格式化耗时字符串(不含输出) VS TimingRecorder.recordTiming(单线程及多线程记录同一方法)
+ * VS 采样模式(每64次调用记录1次, 与TimeMethodVisitor生成的代码相同)
+ *
+ * 运行: gradle jmh -PjmhIncludes=TimingRecorderBenchmark -PjmhProfilers=gc
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimingRecorderBenchmark {
+    private int methodId;
+
+    @Setup
+    public void setup() {
+        methodId = TimingRecorder.register("org.openjava.asm.core.TimingRecorderBenchmark.work()V");
+    }
+
+    @Benchmark
+    public String format() {
+        long start = System.currentTimeMillis();
+        return String.format("work consumes %d milliseconds......", System.currentTimeMillis() - start);
+    }
+
+    @Benchmark
+    public void record() {
+        long start = System.nanoTime();
+        TimingRecorder.recordTiming(methodId, System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public void sampled() {
+        long start = 0L;
+        if (ThreadLocalRandom.current().nextInt(64) == 0) {
+            start = System.nanoTime();
+        }
+        if (start != 0L) {
+            TimingRecorder.recordTiming(methodId, System.nanoTime() - start);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        long start = System.nanoTime();
+        TimingRecorder.recordTiming(methodId, System.nanoTime() - start);
+    }
+}
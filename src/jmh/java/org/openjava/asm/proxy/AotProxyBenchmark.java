@@ -0,0 +1,49 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动耗时: 运行时生成代理类 VS 加载预生成(AOT)代理类
+ *
+ * 每个fork为全新的JVM, 只测量第一次创建代理类对象的耗时(包括代理相关类的加载和初始化);
+ * CalculateService的预生成代理类由gradle generateJmhProxies生成, runtime使用自定义MethodFilter强制运行时生成
+ *
+ * 运行: gradle jmh
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+public class AotProxyBenchmark {
+    @Benchmark
+    public Object runtime() {
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setMethodFilter(new MethodFilter() {});
+        return proxy.newInstance();
+    }
+
+    @Benchmark
+    public Object aot() {
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        Object instance = proxy.newInstance();
+        if (!instance.getClass().getName().endsWith(ProxyClassGenerator.AOT_PROXY_SUFFIX)) {
+            throw new IllegalStateException("AOT proxy class not found, run gradle generateJmhProxies");
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,77 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.SyntheticServiceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量生成代理类: 逐个AsmProxy生成 VS AsmProxy.generateAll并行生成字节码
+ *
+ * 每次调用前生成services个合成的被代理类(每个类10个方法), 定义在新的类加载器中, 保证不命中代理类缓存;
+ * 并行生成的加速比取决于CPU核数, 类定义在同一个类加载器中依次执行
+ *
+ * 运行: gradle jmh -PjmhIncludes=BatchGenerationBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class BatchGenerationBenchmark {
+    private static final MethodInterceptor PASS_INTERCEPTOR = (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args);
+
+    @Param({"1000"})
+    private int services;
+
+    private List<AsmProxy> proxies;
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+        SyntheticServiceLoader classLoader = new SyntheticServiceLoader();
+        proxies = new ArrayList<>(services);
+        for (int i = 0; i < services; i++) {
+            AsmProxy proxy = new AsmProxy();
+            proxy.setSuperClass(classLoader.defineService("org.openjava.asm.proxy.synthetic.Service" + i, 10));
+            proxy.setClassLoader(classLoader);
+            proxy.setHandler(PASS_INTERCEPTOR);
+            proxies.add(proxy);
+        }
+    }
+
+    @Benchmark
+    public Object serial() {
+        Object instance = null;
+        for (AsmProxy proxy : proxies) {
+            instance = proxy.newInstance();
+        }
+        return instance;
+    }
+
+    @Benchmark
+    public Object parallel() {
+        AsmProxy.generateAll(proxies);
+        Object instance = null;
+        for (AsmProxy proxy : proxies) {
+            instance = proxy.newInstance();
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,71 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjava.asm.proxy.service.SyntheticServiceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理类字节码生成吞吐量: 只生成代理类及其FastInvoker、ProxyFactory的字节码, 不定义类, 排除类定义和初始化的开销
+ *
+ * 被代理类包括CalculateService、若干JDK类及包含methods个方法的合成类; 用于对比ClassWriter选项(如COMPUTE_FRAMES与COMPUTE_MAXS)的差异
+ *
+ * 运行: gradle jmh -PjmhIncludes=BytecodeGenerationBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class BytecodeGenerationBenchmark {
+    @Param({"50"})
+    private int methods;
+
+    private List<ProxyClassGenerator.ProxyBuilder> builders;
+
+    @Setup
+    public void setup() throws Exception {
+        SyntheticServiceLoader classLoader = new SyntheticServiceLoader();
+        Class<?>[] superClasses = {CalculateService.class, ArrayList.class, HashMap.class, ConcurrentHashMap.class, ByteArrayOutputStream.class,
+            classLoader.defineService("org.openjava.asm.proxy.synthetic.GeneratedService", methods)};
+        builders = new ArrayList<>(superClasses.length);
+        for (Class<?> superClass : superClasses) {
+            builders.add(ProxyClassGenerator.builder().superClass(superClass).classLoader(classLoader));
+        }
+    }
+
+    /**
+     * 每次调用生成所有被代理类的字节码
+     */
+    @Benchmark
+    public int generate() {
+        int size = 0;
+        for (ProxyClassGenerator.ProxyBuilder builder : builders) {
+            for (byte[] classBytes : builder.generateAotClassBytes().values()) {
+                size += classBytes.length;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,70 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理类定义策略: REFLECT VS LOOKUP VS HIDDEN
+ *
+ * define: 每次调用生成并定义一个新的代理类(每次使用新的MethodFilter对象, 不命中代理类缓存)
+ * 每轮迭代结束后执行GC并打印Metaspace使用量: REFLECT/LOOKUP定义的代理类随类加载器常驻, HIDDEN定义的代理类不再被引用时可被回收
+ *
+ * 运行: gradle jmh
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class DefineStrategyBenchmark {
+    @Param({"REFLECT", "LOOKUP", "HIDDEN"})
+    private DefineStrategy strategy;
+
+    private MemoryPoolMXBean metaspace;
+
+    @Setup
+    public void setup() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool;
+            }
+        }
+    }
+
+    @Benchmark
+    public Class<?> define() {
+        return ProxyClassGenerator.builder().superClass(CalculateService.class)
+            .methodFilter(new MethodFilter() {}).defineStrategy(strategy).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reclaim() {
+        if (metaspace == null) {
+            return;
+        }
+        long used = metaspace.getUsage().getUsed();
+        System.gc();
+        long reclaimed = used - metaspace.getUsage().getUsed();
+        System.out.printf("%n%s metaspace used: %dKB, reclaimed after gc: %dKB%n", strategy, used >> 10, reclaimed >> 10);
+    }
+}
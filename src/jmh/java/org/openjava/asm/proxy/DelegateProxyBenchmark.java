@@ -0,0 +1,87 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjava.asm.proxy.service.Calculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 转发给目标对象的调用开销: 直接调用 VS 委托模式代理类(未拦截方法直接转发) VS JDK Proxy反射转发
+ *
+ * 运行: gradle jmh -PjmhIncludes=DelegateProxyBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class DelegateProxyBenchmark {
+    private Calculator target;
+    private Calculator asmClassDelegate;
+    private Calculator asmInterfaceDelegate;
+    private Calculator jdkDelegate;
+
+    private int a = 1000;
+    private int b = 2000;
+
+    @Setup
+    public void setup() {
+        target = new CalculateService();
+
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setDelegate(true);
+        asmClassDelegate = (Calculator) proxy.newDelegate(target);
+
+        proxy = new AsmProxy();
+        proxy.setInterfaces(Calculator.class);
+        proxy.setDelegate(true);
+        asmInterfaceDelegate = (Calculator) proxy.newDelegate(target);
+
+        Calculator calculator = target;
+        jdkDelegate = (Calculator) Proxy.newProxyInstance(Calculator.class.getClassLoader(), new Class<?>[] {Calculator.class},
+            (p, method, args) -> {
+                try {
+                    return method.invoke(calculator, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            });
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.add(a, b);
+    }
+
+    @Benchmark
+    public int asmClassDelegate() {
+        return asmClassDelegate.add(a, b);
+    }
+
+    @Benchmark
+    public int asmInterfaceDelegate() {
+        return asmInterfaceDelegate.add(a, b);
+    }
+
+    @Benchmark
+    public int jdkDelegate() {
+        return jdkDelegate.add(a, b);
+    }
+}
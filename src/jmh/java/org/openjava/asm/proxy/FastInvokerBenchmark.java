@@ -0,0 +1,68 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用超类方法: Method.invoke反射调用 VS MethodProxy.invokeSuper(FastInvoker)调用
+ *
+ * 运行: gradle jmh
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class FastInvokerBenchmark {
+    private CalculateService direct;
+    private CalculateService reflectProxy;
+    private CalculateService fastProxy;
+
+    private int a = 1000;
+    private int b = 2000;
+
+    @Setup
+    public void setup() {
+        direct = new CalculateService();
+
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((p, method, args) -> method.invoke(p, args));
+        reflectProxy = (CalculateService) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((MethodInterceptor) (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args));
+        fastProxy = (CalculateService) proxy.newInstance();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.add(a, b);
+    }
+
+    @Benchmark
+    public int methodInvoke() {
+        return reflectProxy.add(a, b);
+    }
+
+    @Benchmark
+    public int fastInvoker() {
+        return fastProxy.add(a, b);
+    }
+}
@@ -0,0 +1,94 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按方法分派拦截器: 单个MethodInterceptor每次调用按Method查找拦截器 VS InterceptorBinder生成代理类时绑定拦截器链
+ *
+ * 运行: gradle jmh
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark {
+    private static final MethodInterceptor PASS_INTERCEPTOR = (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args);
+
+    private CalculateService lookupProxy;
+    private CalculateService chainProxy;
+
+    private int a = 1000;
+    private int b = 2000;
+
+    @Setup
+    public void setup() {
+        Map<String, MethodInterceptor> interceptors = new HashMap<>();
+        interceptors.put("add", PASS_INTERCEPTOR);
+        interceptors.put("concat", PASS_INTERCEPTOR);
+
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((MethodInterceptor) (p, method, args, methodProxy) -> {
+            MethodInterceptor interceptor = interceptors.get(stripSuffix(method));
+            if (interceptor == null) {
+                return methodProxy.invokeSuper(p, args);
+            }
+            return interceptor.intercept(p, method, args, methodProxy);
+        });
+        lookupProxy = (CalculateService) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setInterceptorBinder((c, method) -> {
+            MethodInterceptor interceptor = interceptors.get(method.getName());
+            return interceptor == null ? null : new MethodInterceptor[] {interceptor};
+        });
+        chainProxy = (CalculateService) proxy.newInstance();
+    }
+
+    // 传给handler的是代理类的xxxSuper方法
+    private static String stripSuffix(Method method) {
+        String name = method.getName();
+        return name.endsWith("Super") ? name.substring(0, name.length() - 5) : name;
+    }
+
+    @Benchmark
+    public int lookupInterceptor() {
+        return lookupProxy.add(a, b);
+    }
+
+    @Benchmark
+    public int boundChain() {
+        return chainProxy.add(a, b);
+    }
+
+    @Benchmark
+    public long lookupUnintercepted() {
+        return lookupProxy.multiply(a, b);
+    }
+
+    @Benchmark
+    public long boundUnintercepted() {
+        return chainProxy.multiply(a, b);
+    }
+}
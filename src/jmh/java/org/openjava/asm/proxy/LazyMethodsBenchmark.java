@@ -0,0 +1,71 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.SyntheticServiceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动耗时: 代理类初始化时解析所有代理方法 VS 延迟解析代理方法(lazyMethods)
+ *
+ * 每个fork为全新的JVM, 只测量第一次创建代理类对象并调用一个代理方法的耗时;
+ * 被代理类为包含methods个方法的合成类, 延迟解析模式下只有被调用的方法会被解析
+ *
+ * 运行: gradle jmh -PjmhIncludes=LazyMethodsBenchmark
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class LazyMethodsBenchmark {
+    private static final MethodInterceptor PASS_INTERCEPTOR = (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args);
+
+    @Param({"500"})
+    private int methods;
+
+    private SyntheticServiceLoader classLoader;
+    private Class<?> serviceClass;
+    private Method method;
+
+    @Setup
+    public void setup() throws Exception {
+        classLoader = new SyntheticServiceLoader();
+        serviceClass = classLoader.defineService("org.openjava.asm.proxy.synthetic.WideService", methods);
+        method = serviceClass.getMethod("method0", int.class, String.class);
+    }
+
+    @Benchmark
+    public Object eager() throws Exception {
+        return invokeFirst(false);
+    }
+
+    @Benchmark
+    public Object lazy() throws Exception {
+        return invokeFirst(true);
+    }
+
+    private Object invokeFirst(boolean lazyMethods) throws Exception {
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(serviceClass);
+        proxy.setClassLoader(classLoader);
+        proxy.setLazyMethods(lazyMethods);
+        proxy.setHandler(PASS_INTERCEPTOR);
+        return method.invoke(proxy.newInstance(), 1, "lazy");
+    }
+}
@@ -0,0 +1,89 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基本类型方法的调用开销和内存分配: MethodInterceptor(参数数组、参数和返回值装箱) VS 基本类型专用InvocationHandler(不装箱)
+ *
+ * 运行: gradle jmh -PjmhIncludes=PrimitiveHandlerBenchmark -PjmhProfilers=gc,
+ * 基本类型专用handler的gc.alloc.rate.norm应接近0 B/op
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class PrimitiveHandlerBenchmark {
+    private CalculateService boxedProxy;
+    private CalculateService primitiveProxy;
+
+    private int a = 1000;
+    private int b = 2000;
+
+    @Setup
+    public void setup() {
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((MethodInterceptor) (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args));
+        boxedProxy = (CalculateService) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler(new PrimitiveHandler());
+        primitiveProxy = (CalculateService) proxy.newInstance();
+    }
+
+    @Benchmark
+    public int intBoxed() {
+        return boxedProxy.add(a, b);
+    }
+
+    @Benchmark
+    public int intPrimitive() {
+        return primitiveProxy.add(a, b);
+    }
+
+    @Benchmark
+    public long longBoxed() {
+        return boxedProxy.multiply(a, b);
+    }
+
+    @Benchmark
+    public long longPrimitive() {
+        return primitiveProxy.multiply(a, b);
+    }
+
+    private static class PrimitiveHandler implements IntInvocationHandler, LongInvocationHandler {
+        @Override
+        public int invokeInt(Object proxy, MethodProxy methodProxy, Arguments args) throws Throwable {
+            return methodProxy.invokeSuperInt(proxy, args);
+        }
+
+        @Override
+        public long invokeLong(Object proxy, MethodProxy methodProxy, Arguments args) throws Throwable {
+            return methodProxy.invokeSuperLong(proxy, args);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return method.invoke(proxy, args);
+        }
+    }
+}
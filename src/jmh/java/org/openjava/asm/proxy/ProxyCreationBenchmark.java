@@ -0,0 +1,82 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjava.asm.proxy.service.Calculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理类生成和代理对象创建: ProxyBuilder.build(缓存命中/生成新代理类) 及 AsmProxy.newInstance VS JDK Proxy VS new
+ *
+ * 运行: gradle jmh, 结果输出为JSON(build/results/jmh/results.json)
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class ProxyCreationBenchmark {
+    private static final Class<?>[] INT_ARGUMENT_TYPES = {int.class};
+
+    private AsmProxy asmProxy;
+    private InvocationHandler handler;
+    private Object[] arguments;
+
+    @Setup
+    public void setup() {
+        CalculateService target = new CalculateService();
+        handler = (p, method, args) -> method.invoke(target, args);
+        asmProxy = new AsmProxy();
+        asmProxy.setSuperClass(CalculateService.class);
+        asmProxy.setHandler(handler);
+        asmProxy.newInstance(); // 预先生成代理类
+        arguments = new Object[] {1};
+    }
+
+    @Benchmark
+    public Class<?> buildCached() {
+        return ProxyClassGenerator.builder().superClass(CalculateService.class).build();
+    }
+
+    @Benchmark
+    public Class<?> buildNew() {
+        // 每次使用新的MethodFilter对象, 不命中代理类缓存
+        return ProxyClassGenerator.builder().superClass(CalculateService.class).methodFilter(new MethodFilter() {}).build();
+    }
+
+    @Benchmark
+    public Object newInstance() {
+        return asmProxy.newInstance();
+    }
+
+    @Benchmark
+    public Object newInstanceWithArgs() {
+        return asmProxy.newInstance(INT_ARGUMENT_TYPES, arguments);
+    }
+
+    @Benchmark
+    public Object jdkProxy() {
+        return Proxy.newProxyInstance(Calculator.class.getClassLoader(), new Class<?>[] {Calculator.class}, handler);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return new CalculateService();
+    }
+}
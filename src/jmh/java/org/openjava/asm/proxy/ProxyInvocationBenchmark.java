@@ -0,0 +1,171 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjava.asm.proxy.service.Calculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理方法单次调用开销: 基本类型(add)、对象(concat)、void(noop)方法
+ *
+ * direct: 直接调用
+ * jdkProxy: JDK Proxy, InvocationHandler反射调用目标对象
+ * asmHandler: InvocationHandler, Method.invoke调用超类方法
+ * asmInterceptor: MethodInterceptor, MethodProxy.invokeSuper(FastInvoker)调用超类方法
+ * asmMethodHandle: MethodHandleInterceptor, 直接调用超类方法的MethodHandle
+ * asmInvokeDynamic: MethodHandleInterceptor + invokeDynamic, 通过invokedynamic常量调用点调用超类方法的MethodHandle
+ *
+ * 运行: gradle jmh, 结果输出为JSON(build/results/jmh/results.json)
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class ProxyInvocationBenchmark {
+    private Calculator direct;
+    private Calculator jdkProxy;
+    private Calculator asmHandler;
+    private Calculator asmInterceptor;
+    private Calculator asmMethodHandle;
+    private Calculator asmInvokeDynamic;
+
+    private int a = 1000;
+    private int b = 2000;
+    private String s1 = "hello";
+    private String s2 = "world";
+
+    @Setup
+    public void setup() {
+        CalculateService target = new CalculateService();
+        direct = target;
+        jdkProxy = (Calculator) Proxy.newProxyInstance(Calculator.class.getClassLoader(), new Class<?>[] {Calculator.class},
+            (p, method, args) -> method.invoke(target, args));
+
+        AsmProxy proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((p, method, args) -> method.invoke(p, args));
+        asmHandler = (Calculator) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setHandler((MethodInterceptor) (p, method, args, methodProxy) -> methodProxy.invokeSuper(p, args));
+        asmInterceptor = (Calculator) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setMethodHandleInterceptor((method, superHandle) -> superHandle);
+        asmMethodHandle = (Calculator) proxy.newInstance();
+
+        proxy = new AsmProxy();
+        proxy.setSuperClass(CalculateService.class);
+        proxy.setMethodHandleInterceptor((method, superHandle) -> superHandle);
+        proxy.setInvokeDynamic(true);
+        asmInvokeDynamic = (Calculator) proxy.newInstance();
+    }
+
+    @Benchmark
+    public int primitiveDirect() {
+        return direct.add(a, b);
+    }
+
+    @Benchmark
+    public int primitiveJdkProxy() {
+        return jdkProxy.add(a, b);
+    }
+
+    @Benchmark
+    public int primitiveAsmHandler() {
+        return asmHandler.add(a, b);
+    }
+
+    @Benchmark
+    public int primitiveAsmInterceptor() {
+        return asmInterceptor.add(a, b);
+    }
+
+    @Benchmark
+    public int primitiveAsmMethodHandle() {
+        return asmMethodHandle.add(a, b);
+    }
+
+    @Benchmark
+    public int primitiveAsmInvokeDynamic() {
+        return asmInvokeDynamic.add(a, b);
+    }
+
+    @Benchmark
+    public String objectDirect() {
+        return direct.concat(s1, s2);
+    }
+
+    @Benchmark
+    public String objectJdkProxy() {
+        return jdkProxy.concat(s1, s2);
+    }
+
+    @Benchmark
+    public String objectAsmHandler() {
+        return asmHandler.concat(s1, s2);
+    }
+
+    @Benchmark
+    public String objectAsmInterceptor() {
+        return asmInterceptor.concat(s1, s2);
+    }
+
+    @Benchmark
+    public String objectAsmMethodHandle() {
+        return asmMethodHandle.concat(s1, s2);
+    }
+
+    @Benchmark
+    public String objectAsmInvokeDynamic() {
+        return asmInvokeDynamic.concat(s1, s2);
+    }
+
+    @Benchmark
+    public void voidDirect() {
+        direct.noop();
+    }
+
+    @Benchmark
+    public void voidJdkProxy() {
+        jdkProxy.noop();
+    }
+
+    @Benchmark
+    public void voidAsmHandler() {
+        asmHandler.noop();
+    }
+
+    @Benchmark
+    public void voidAsmInterceptor() {
+        asmInterceptor.noop();
+    }
+
+    @Benchmark
+    public void voidAsmMethodHandle() {
+        asmMethodHandle.noop();
+    }
+
+    @Benchmark
+    public void voidAsmInvokeDynamic() {
+        asmInvokeDynamic.noop();
+    }
+}
@@ -0,0 +1,72 @@
+package org.openjava.asm.proxy;
+
+import org.openjava.asm.proxy.service.CalculateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求级别的代理类对象: 每次请求创建新对象(AsmProxy.newInstance) VS 从ProxyPool获取并归还可重置的代理类对象
+ *
+ * 每次请求绑定新的handler状态并调用一次代理方法; 多线程同时获取和归还, 测量对象池的竞争开销
+ *
+ * 运行: gradle jmh -PjmhIncludes=ProxyPoolBenchmark -PjmhProfilers=gc
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ProxyPoolBenchmark {
+    private static final MethodInterceptor STATE_INTERCEPTOR = (p, method, args, methodProxy) ->
+        (Integer) methodProxy.invokeSuper(p, args) + (Integer) ((ResettableProxy) p).getProxyState();
+
+    private AsmProxy allocating;
+    private ProxyPool pool;
+
+    private Integer state = 1;
+
+    @Setup
+    public void setup() {
+        allocating = new AsmProxy();
+        allocating.setSuperClass(CalculateService.class);
+        allocating.setResettable(true);
+
+        AsmProxy pooled = new AsmProxy();
+        pooled.setSuperClass(CalculateService.class);
+        pooled.setResettable(true);
+        pool = pooled.newPool(64);
+    }
+
+    @Benchmark
+    public int allocate() {
+        CalculateService service = (CalculateService) allocating.newInstance();
+        ((ResettableProxy) service).rebind(STATE_INTERCEPTOR, state);
+        return service.add(1, 2);
+    }
+
+    @Benchmark
+    public int pooled() {
+        CalculateService service = (CalculateService) pool.acquire(STATE_INTERCEPTOR, state);
+        try {
+            return service.add(1, 2);
+        } finally {
+            pool.release(service);
+        }
+    }
+}
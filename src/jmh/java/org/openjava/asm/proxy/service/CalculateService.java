@@ -0,0 +1,34 @@
+package org.openjava.asm.proxy.service;
+
+/**
+ * 基准测试的被代理类
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class CalculateService implements Calculator {
+    private final int base;
+
+    public CalculateService() {
+        this(0);
+    }
+
+    public CalculateService(int base) {
+        this.base = base;
+    }
+
+    public int add(int a, int b) {
+        return base + a + b;
+    }
+
+    public long multiply(long a, long b) {
+        return a * b;
+    }
+
+    public String concat(String a, String b) {
+        return a + b;
+    }
+
+    public void noop() {
+    }
+}
@@ -0,0 +1,17 @@
+package org.openjava.asm.proxy.service;
+
+/**
+ * 基准测试的被代理接口, 用于与JDK Proxy对比
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface Calculator {
+    int add(int a, int b);
+
+    long multiply(long a, long b);
+
+    String concat(String a, String b);
+
+    void noop();
+}
@@ -0,0 +1,66 @@
+package org.openjava.asm.proxy.service;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试的合成被代理类: 使用ASM生成并定义在独立的类加载器中, 每个类加载器中的代理类不会命中其他基准测试的代理类缓存
+ *
+ * public class ServiceN {
+ *     public int method0(int value, String name) { return value; }
+ *     ...
+ * }
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class SyntheticServiceLoader extends ClassLoader {
+    private final Map<String, byte[]> classBytes = new HashMap<>();
+
+    public SyntheticServiceLoader() {
+        super(SyntheticServiceLoader.class.getClassLoader());
+    }
+
+    /**
+     * 生成包含methods个方法的被代理类
+     */
+    public Class<?> defineService(String className, int methods) throws ClassNotFoundException {
+        classBytes.put(className, generateService(className, methods));
+        return loadClass(className);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classBytes.remove(name);
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    private static byte[] generateService(String className, int methods) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className.replace('.', '/'), null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        for (int i = 0; i < methods; i++) {
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "(ILjava/lang/String;)I", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ILOAD, 1);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+package org.openjava.asm.agent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * agent参数: -javaagent:openjava-asm.jar=key1=value1;key2=value2, 不包含'='的参数作为dir选项(兼容原有的参数格式)
+ *
+ * 支持的选项:
+ *  dir     类文件的输出目录, 配置了dump规则时必须指定
+ *  sample  耗时统计的采样率, 格式为类名模式:N, 多个以逗号分隔, 如: com.diligrp.*:100,com.diligrp.xtrade.upay.boss.*:1
+ *          匹配的类每N次方法调用平均只记录1次耗时; 类名模式以.*结尾时匹配包及其子包中的类, 否则匹配类名;
+ *          多个模式匹配时使用最长的模式, 没有模式匹配时记录每次调用
+ *  include exclude dump rules  类选择规则, 参见TransformRules
+ *  cache   改写结果的缓存目录, 参见TransformCache
+ *  prescan prescan.threads prescan.retain  预扫描的jar包、线程数及内存中改写结果的保留时间, 参见ClassPrescanner
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class AgentArgs {
+    public static final String DIR_OPTION = "dir";
+    public static final String SAMPLE_OPTION = "sample";
+
+    private final Map<String, String> options = new HashMap<>();
+    private final List<SampleRate> sampleRates = new ArrayList<>();
+
+    private AgentArgs() {
+    }
+
+    public static AgentArgs parse(String args) {
+        AgentArgs agentArgs = new AgentArgs();
+        if (args == null || args.trim().isEmpty()) {
+            return agentArgs;
+        }
+        if (args.indexOf('=') < 0) {
+            agentArgs.options.put(DIR_OPTION, args.trim());
+            return agentArgs;
+        }
+        for (String option : args.split(";")) {
+            int index = option.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("Invalid agent option: " + option);
+            }
+            agentArgs.options.put(option.substring(0, index).trim(), option.substring(index + 1).trim());
+        }
+        String sample = agentArgs.options.get(SAMPLE_OPTION);
+        if (sample != null && !sample.isEmpty()) {
+            for (String rule : sample.split(",")) {
+                int index = rule.lastIndexOf(':');
+                if (index <= 0) {
+                    throw new IllegalArgumentException("Invalid sample rate: " + rule);
+                }
+                agentArgs.sampleRates.add(new SampleRate(rule.substring(0, index).trim(), Integer.parseInt(rule.substring(index + 1).trim())));
+            }
+            agentArgs.sampleRates.sort((r1, r2) -> r2.pattern.length() - r1.pattern.length());
+        }
+        return agentArgs;
+    }
+
+    public String get(String option) {
+        return options.get(option);
+    }
+
+    /**
+     * 类的采样率, className为内部类名(以/分隔)
+     */
+    public int getSampleRate(String className) {
+        for (SampleRate sampleRate : sampleRates) {
+            if (sampleRate.matches(className)) {
+                return sampleRate.rate;
+            }
+        }
+        return 1;
+    }
+
+    private static class SampleRate {
+        private final String pattern;
+        private final String prefix; // 内部类名形式的前缀, 包模式以/结尾
+        private final boolean isPackage;
+        private final int rate;
+
+        SampleRate(String pattern, int rate) {
+            this.pattern = pattern;
+            this.isPackage = pattern.endsWith(".*");
+            String name = isPackage ? pattern.substring(0, pattern.length() - 1) : pattern;
+            this.prefix = name.replace('.', '/');
+            this.rate = Math.max(rate, 1);
+        }
+
+        boolean matches(String className) {
+            return isPackage ? className.startsWith(prefix) : className.equals(prefix);
+        }
+    }
+}
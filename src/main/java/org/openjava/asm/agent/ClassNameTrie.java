@@ -0,0 +1,104 @@
+package org.openjava.asm.agent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按类名前缀索引的规则前缀树: 每条规则挂在其类名前缀(第一个通配符之前的部分)对应的节点上, 查找时沿类名逐字符下行,
+ * 只校验路径上挂载的规则; 类名与所有规则前缀都不匹配时只需比较几个字符即可返回, 不分配对象
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class ClassNameTrie {
+    private final Node root = new Node();
+
+    void add(ClassRule rule) {
+        Node node = root;
+        String prefix = rule.getPrefix();
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrCreate(prefix.charAt(i));
+        }
+        node.rules = node.rules == null ? new ClassRule[] {rule} : append(node.rules, rule);
+    }
+
+    /**
+     * 查找第一条匹配类名的规则, 没有匹配时返回null
+     */
+    ClassRule first(String className) {
+        Node node = root;
+        for (int i = 0; ; i++) {
+            if (node.rules != null) {
+                for (ClassRule rule : node.rules) {
+                    if (rule.matchesClass(className)) {
+                        return rule;
+                    }
+                }
+            }
+            if (i == className.length() || (node = node.get(className.charAt(i))) == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 查找所有匹配类名的规则, 没有匹配时返回null
+     */
+    List<ClassRule> all(String className) {
+        List<ClassRule> matched = null;
+        Node node = root;
+        for (int i = 0; ; i++) {
+            if (node.rules != null) {
+                for (ClassRule rule : node.rules) {
+                    if (rule.matchesClass(className)) {
+                        if (matched == null) {
+                            matched = new ArrayList<>(2);
+                        }
+                        matched.add(rule);
+                    }
+                }
+            }
+            if (i == className.length() || (node = node.get(className.charAt(i))) == null) {
+                return matched;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return root.rules == null && root.keys.length == 0;
+    }
+
+    private static ClassRule[] append(ClassRule[] rules, ClassRule rule) {
+        ClassRule[] newRules = Arrays.copyOf(rules, rules.length + 1);
+        newRules[rules.length] = rule;
+        return newRules;
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private ClassRule[] rules;
+
+        Node get(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrCreate(char c) {
+            Node child = get(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.openjava.asm.agent;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjava.asm.core.MethodMatcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 预扫描: premain时在后台线程池中并行读取应用的jar包和类目录, 在类加载之前改写匹配规则的类并保存到TransformCache,
+ * 类加载时直接使用改写结果; 已缓存的类不再改写, 缓存目录有效时预扫描只读取和计算摘要
+ *
+ * agent参数(参见AgentArgs):
+ *  prescan          需要预扫描的jar包或类目录, 多个以逗号分隔, 如: prescan=/app/upay-service-1.0.0.jar
+ *                   jar包中的jar包(如Spring Boot的BOOT-INF/lib)同样扫描
+ *  prescan.threads  预扫描的线程数, 默认为CPU核数
+ *  prescan.retain   未配置缓存目录时, 预扫描结束后在内存中保留改写结果的秒数, 默认60秒, 之后加载的类在类加载时改写
+ *
+ * 扫描分两个阶段: 第一阶段每个jar包(或类目录)一个任务, 读取所有类的超类建立类层次, 保留匹配规则的类文件; 第二阶段每个类一个任务,
+ * 改写时按类层次计算栈帧的公共超类, 不通过类加载器加载应用类, 避免改变类的加载顺序; 类层次中没有的类(JDK的类)
+ * 通过平台类加载器加载, 无法确定公共超类的类留到类加载时改写
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class ClassPrescanner {
+    static final String PRESCAN_OPTION = "prescan";
+    static final String THREADS_OPTION = "prescan.threads";
+    static final String RETAIN_OPTION = "prescan.retain";
+    private static final long DEFAULT_RETAIN_SECONDS = 60;
+
+    private final TimingTransformer transformer;
+    private final List<Path> paths;
+    private final int threads;
+    private final long retainMillis;
+
+    // 类层次: 内部类名 -> 超类内部类名, 接口及没有超类的类记为空字符串
+    private final ConcurrentMap<String, String> superNames = new ConcurrentHashMap<>();
+    private final Queue<PendingClass> pendingClasses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scannedCount = new AtomicInteger();
+    private final AtomicInteger matchedCount = new AtomicInteger();
+    private final AtomicInteger transformedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    ClassPrescanner(TimingTransformer transformer, List<Path> paths, int threads, long retainMillis) {
+        this.transformer = transformer;
+        this.paths = paths;
+        this.threads = threads;
+        this.retainMillis = retainMillis;
+    }
+
+    /**
+     * 根据agent参数创建预扫描, 未配置预扫描时返回null
+     */
+    static ClassPrescanner create(AgentArgs args, TimingTransformer transformer) {
+        String prescan = args.get(PRESCAN_OPTION);
+        if (prescan == null || prescan.trim().isEmpty()) {
+            return null;
+        }
+        List<Path> paths = Stream.of(prescan.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+            .map(Paths::get).collect(Collectors.toList());
+        String threads = args.get(THREADS_OPTION);
+        int size = threads == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        String retain = args.get(RETAIN_OPTION);
+        long retainSeconds = retain == null ? DEFAULT_RETAIN_SECONDS : Long.parseLong(retain);
+        return new ClassPrescanner(transformer, paths, Math.max(size, 1), TimeUnit.SECONDS.toMillis(Math.max(retainSeconds, 0)));
+    }
+
+    /**
+     * 在守护线程中开始预扫描, 不等待扫描完成
+     */
+    void start() {
+        Thread thread = new Thread(this::run, "asm-prescan");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        AtomicInteger index = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "asm-prescan-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // 第一阶段: 扫描过程中发现的jar包作为新任务提交, Phaser等待所有jar包扫描完成
+            Phaser phaser = new Phaser(1);
+            for (Path path : paths) {
+                submit(executor, phaser, () -> scan(executor, phaser, path));
+            }
+            phaser.arriveAndAwaitAdvance();
+
+            // 第二阶段: 类层次完整后改写
+            List<Callable<Void>> tasks = new ArrayList<>(pendingClasses.size());
+            for (PendingClass clazz : pendingClasses) {
+                tasks.add(() -> transform(clazz));
+            }
+            pendingClasses.clear();
+            executor.invokeAll(tasks);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println(String.format("prescan: %d classes scanned, %d matched, %d transformed, %d failed in %d ms",
+            scannedCount.get(), matchedCount.get(), transformedCount.get(), failedCount.get(), (System.nanoTime() - start) / 1_000_000));
+
+        // 等待启动阶段的类加载完成后释放内存中的改写结果, 剩余的类(从未加载或预扫描前已加载)不再占用内存
+        try {
+            Thread.sleep(retainMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        transformer.releasePrescanned();
+    }
+
+    private void submit(ExecutorService executor, Phaser phaser, Task task) {
+        phaser.register();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            } finally {
+                phaser.arriveAndDeregister();
+            }
+        });
+    }
+
+    private void scan(ExecutorService executor, Phaser phaser, Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(path)) {
+                files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".class")) {
+                    scanClass(Files.readAllBytes(file));
+                } else if (name.endsWith(".jar")) {
+                    submit(executor, phaser, () -> scan(executor, phaser, file));
+                }
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(path)) {
+                scanJar(executor, phaser, in);
+            }
+        }
+    }
+
+    private void scanJar(ExecutorService executor, Phaser phaser, InputStream in) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            if (name.endsWith(".class") && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                scanClass(readAll(zip));
+            } else if (name.endsWith(".jar")) {
+                // 嵌套的jar包读入内存后由其他线程扫描
+                byte[] jar = readAll(zip);
+                submit(executor, phaser, () -> scanJar(executor, phaser, new ByteArrayInputStream(jar)));
+            }
+        }
+    }
+
+    private void scanClass(byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        String className = reader.getClassName();
+        boolean isInterface = (reader.getAccess() & Opcodes.ACC_INTERFACE) != 0;
+        String superName = reader.getSuperName();
+        superNames.putIfAbsent(className, isInterface || superName == null ? "" : superName);
+        scannedCount.incrementAndGet();
+
+        MethodMatcher matcher = transformer.matchTransform(className);
+        if (matcher != null) {
+            pendingClasses.add(new PendingClass(className, matcher, classBytes));
+            matchedCount.incrementAndGet();
+        }
+    }
+
+    private Void transform(PendingClass clazz) {
+        try {
+            if (transformer.prescan(new HierarchyClassWriter(), clazz.className, clazz.matcher, clazz.classBytes)) {
+                transformedCount.incrementAndGet();
+            }
+        } catch (RuntimeException ex) {
+            failedCount.incrementAndGet(); // 类加载时重新改写
+        }
+        return null;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private static class PendingClass {
+        private final String className;
+        private final MethodMatcher matcher;
+        private final byte[] classBytes;
+
+        PendingClass(String className, MethodMatcher matcher, byte[] classBytes) {
+            this.className = className;
+            this.matcher = matcher;
+            this.classBytes = classBytes;
+        }
+    }
+
+    /**
+     * 按扫描得到的类层次计算公共超类; 接口按Object处理, 与校验器对接口类型的处理一致
+     */
+    private class HierarchyClassWriter extends ClassWriter {
+        HierarchyClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES);
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            List<String> ancestors = new ArrayList<>();
+            for (String type = type1; type != null; type = superName(type)) {
+                ancestors.add(type);
+            }
+            for (String type = type2; type != null; type = superName(type)) {
+                if (ancestors.contains(type)) {
+                    return type;
+                }
+            }
+            return "java/lang/Object";
+        }
+
+        /**
+         * 超类的内部类名, 接口及Object返回null
+         */
+        private String superName(String type) {
+            if ("java/lang/Object".equals(type)) {
+                return null;
+            }
+            String superName = superNames.get(type);
+            if (superName != null) {
+                return superName.isEmpty() ? null : superName;
+            }
+            try {
+                Class<?> clazz = Class.forName(type.replace('/', '.'), false, ClassLoader.getSystemClassLoader().getParent());
+                return clazz.isInterface() || clazz.getSuperclass() == null ? null : clazz.getSuperclass().getName().replace('.', '/');
+            } catch (ClassNotFoundException ex) {
+                throw new TypeNotPresentException(type, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.openjava.asm.agent;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 类匹配规则: 类名模式[#方法名模式][@注解类名], 如:
+ *  com.diligrp.**.controller.*Controller#pay*|refund*
+ *  com.diligrp.**@org.springframework.stereotype.Service
+ *
+ * 类名模式中*匹配包名中的一段(不含.), **匹配任意多段, ?匹配一个字符; 方法名模式中*匹配任意字符, 多个模式以|分隔;
+ * 注解匹配类或方法上的注解, 类有该注解时匹配类的所有方法
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class ClassRule {
+    private final String rule;
+    private final String prefix; // 类名模式中第一个通配符之前的部分(内部类名形式), 用于前缀树
+    private final Pattern classPattern; // 类名模式含通配符时使用, 否则为null
+    private final boolean prefixOnly; // 类名模式为 前缀** 的形式, 只需匹配前缀
+    private final Pattern methodPattern; // 为null时匹配所有方法
+    private final String annotation; // 注解描述符, 为null时不要求注解
+
+    private ClassRule(String rule, String prefix, Pattern classPattern, boolean prefixOnly, Pattern methodPattern, String annotation) {
+        this.rule = rule;
+        this.prefix = prefix;
+        this.classPattern = classPattern;
+        this.prefixOnly = prefixOnly;
+        this.methodPattern = methodPattern;
+        this.annotation = annotation;
+    }
+
+    static ClassRule parse(String rule) {
+        String text = rule.trim();
+        String annotation = null;
+        int index = text.indexOf('@');
+        if (index >= 0) {
+            annotation = "L" + text.substring(index + 1).trim().replace('.', '/') + ";";
+            text = text.substring(0, index).trim();
+        }
+        Pattern methodPattern = null;
+        index = text.indexOf('#');
+        if (index >= 0) {
+            methodPattern = compileMethodPattern(text.substring(index + 1).trim());
+            text = text.substring(0, index).trim();
+        }
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Invalid class rule: " + rule);
+        }
+
+        String glob = text.replace('.', '/');
+        int wildcard = indexOfWildcard(glob);
+        if (wildcard < 0) {
+            return new ClassRule(rule, glob, null, false, methodPattern, annotation);
+        }
+        String prefix = glob.substring(0, wildcard);
+        boolean prefixOnly = glob.length() == wildcard + 2 && glob.endsWith("**");
+        Pattern classPattern = prefixOnly ? null : Pattern.compile(toClassRegex(glob));
+        return new ClassRule(rule, prefix, classPattern, prefixOnly, methodPattern, annotation);
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * 类名是否匹配, className为内部类名且已知以prefix开头
+     */
+    boolean matchesClass(String className) {
+        if (prefixOnly) {
+            return true;
+        }
+        return classPattern == null ? className.length() == prefix.length() : classPattern.matcher(className).matches();
+    }
+
+    boolean matchesMethod(String methodName, List<String> classAnnotations, List<String> methodAnnotations) {
+        if (methodPattern != null && !methodPattern.matcher(methodName).matches()) {
+            return false;
+        }
+        return annotation == null || classAnnotations.contains(annotation) || methodAnnotations.contains(annotation);
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+    private static int indexOfWildcard(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String toClassRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+
+    private static Pattern compileMethodPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String alternative : glob.split("\\|")) {
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            for (int i = 0; i < alternative.length(); i++) {
+                char c = alternative.charAt(i);
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
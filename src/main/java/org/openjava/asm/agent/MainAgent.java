@@ -3,11 +3,14 @@ package org.openjava.asm.agent;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
+import org.openjava.asm.core.MethodMatcher;
 import org.openjava.asm.core.TimeClassTransformer;
 
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author: brenthuang
@@ -17,10 +20,14 @@ public class MainAgent {
     public static void agentmain(String args, Instrumentation inst) throws Exception {
         System.out.println(String.format("agentmain args: %s, retransformClassesSupported: %s, redefineClassesSupported: %s",
                 args, inst.isRetransformClassesSupported(), inst.isRedefineClassesSupported()));
+        AgentArgs agentArgs = AgentArgs.parse(args);
+        TransformRules rules = TransformRules.parse(agentArgs);
         inst.addTransformer(new ClassFileTransformer() {
             @Override
             public byte[] transform(ClassLoader loader, String className, Class<?> c, ProtectionDomain domain, byte[] classBytes) {
-                if ("org/apache/ibatis/session/defaults/DefaultSqlSession".equals(className)) {
+                // 根据类加载器和类名筛选, 不匹配的类不解析类文件
+                MethodMatcher matcher = TransformRules.acceptsLoader(loader) ? rules.matchTransform(className) : null;
+                if (matcher != null) {
                     Thread t = Thread.currentThread();
                     ClassLoader cl = t.getContextClassLoader();
                     t.setContextClassLoader(loader);
@@ -51,7 +58,7 @@ public class MainAgent {
                                 return cl;
                             }
                         };
-                        TimeClassTransformer cv = new TimeClassTransformer(Opcodes.ASM9, cw);
+                        TimeClassTransformer cv = new TimeClassTransformer(Opcodes.ASM9, cw, agentArgs.getSampleRate(className), matcher);
                         // 如果MethodVisitor存在LocalVariablesSorter则，需使用EXPAND_FRAMES参数
                         reader.accept(cv, ClassReader.EXPAND_FRAMES);
                         return cw.toByteArray();
@@ -62,12 +69,20 @@ public class MainAgent {
                     }
                     return classBytes;
                 }
-                return classBytes;
+                return null; // 不修改类文件
             }
         }, true);
         // 如果是项目类文件，可能出现ClassNotFoundException异常，需使用特定的类加载器进行加载
         // 目前没有可行的方案获取到项目默认的类加载器，比如：Springboot项目的LaunchedURLClassLoader
         // 因此对于使用了自定义类加载器的项目，目前不适合使用agentmain模式，无法完成修改项目类的目的
-        inst.retransformClasses(MainAgent.class.getClassLoader().loadClass("org.apache.ibatis.session.defaults.DefaultSqlSession"));
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> c : inst.getAllLoadedClasses()) {
+            if (inst.isModifiableClass(c) && TransformRules.acceptsLoader(c.getClassLoader()) && rules.matchTransform(c.getName().replace('.', '/')) != null) {
+                classes.add(c);
+            }
+        }
+        if (!classes.isEmpty()) {
+            inst.retransformClasses(classes.toArray(new Class<?>[0]));
+        }
     }
 }
\ No newline at end of file
@@ -10,18 +10,21 @@ import java.lang.instrument.Instrumentation;
 import java.security.ProtectionDomain;
 
 public class PremainAgent {
-    public static void premain(String args, Instrumentation inst) {
+    public static void premain(String args, Instrumentation inst) throws Exception {
         //java -Xbootclasspath/a:asm-9.4.jar:asm-commons-9.4.jar -javaagent:/Users/brenthuang/Work/projects/openjava-asm/build/libs/openjava-asm-1.0-SNAPSHOT.jar=aa -jar upay-service-1.0.0.jar
         System.out.println(String.format("premain args: %s, retransformClassesSupported: %s, redefineClassesSupported: %s",
             args, inst.isRetransformClassesSupported(), inst.isRedefineClassesSupported()));
+        AgentArgs agentArgs = AgentArgs.parse(args);
+        TransformRules rules = TransformRules.parse(agentArgs);
         inst.addTransformer(new ClassFileTransformer() {
             // premain是在main函数之前执行(类加载之前执行)，因此参数Class<?> c为null
             @Override
             public byte[] transform(ClassLoader loader, String className, Class<?> c, ProtectionDomain domain, byte[] classBytes) throws IllegalClassFormatException {
-                if ("com/dili/ss/component/JarCleaner".equals(className) || "com/dili/ss/dto/Supreme".equals(className)) {
+                // 根据类名筛选, 只输出dump规则匹配的类文件
+                if (rules.matchDump(className)) {
                     System.out.println("start------>" + className);
                     try {
-                        String dirs = args.replace('\\', File.separatorChar);
+                        String dirs = agentArgs.get(AgentArgs.DIR_OPTION).replace('\\', File.separatorChar);
                         new File(dirs + File.separatorChar + className).getParentFile().mkdirs();
 
                         File file = new File(new File(dirs), className + ".class");
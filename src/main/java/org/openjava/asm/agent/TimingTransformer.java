@@ -0,0 +1,132 @@
+package org.openjava.asm.agent;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjava.asm.core.MethodMatcher;
+import org.openjava.asm.core.TimeClassTransformer;
+
+/**
+ * 记录方法耗时的类文件改写, 类加载时由PremainAgent1调用, 预扫描时由ClassPrescanner调用
+ *
+ * 启用缓存时(参见TransformCache)先按类文件内容查找缓存, 未命中时改写并写入缓存
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class TimingTransformer {
+    private final AgentArgs agentArgs;
+    private final TransformRules rules;
+    private final TransformCache cache; // 未启用缓存时为null
+
+    TimingTransformer(AgentArgs agentArgs, TransformRules rules, TransformCache cache) {
+        this.agentArgs = agentArgs;
+        this.rules = rules;
+        this.cache = cache;
+    }
+
+    /**
+     * 获取类的方法选择器, 类不需要改写时返回null
+     */
+    MethodMatcher matchTransform(String className) {
+        return rules.matchTransform(className);
+    }
+
+    /**
+     * 类加载时改写类文件, 计算栈帧时优先使用加载该类的类加载器
+     */
+    byte[] transform(ClassLoader loader, String className, MethodMatcher matcher, byte[] classBytes) {
+        int sampleRate = agentArgs.getSampleRate(className);
+        String key = null;
+        if (cache != null) {
+            key = cache.key(className, sampleRate, classBytes);
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Thread t = Thread.currentThread();
+        ClassLoader cl = t.getContextClassLoader();
+        t.setContextClassLoader(loader);
+        try {
+            ClassWriter cw = new ContextClassWriter();
+            boolean cacheable = transform(new ClassReader(classBytes), cw, sampleRate, matcher);
+            byte[] result = cw.toByteArray();
+            if (key != null && cacheable) {
+                cache.put(key, result);
+            }
+            return result;
+        } finally {
+            t.setContextClassLoader(cl);
+        }
+    }
+
+    /**
+     * 预扫描时改写类文件并保存到缓存, 返回是否改写; 已缓存的类及不可缓存的类不改写, cw需能在不加载应用类的情况下计算公共超类
+     */
+    boolean prescan(ClassWriter cw, String className, MethodMatcher matcher, byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        if (reader.readUnsignedShort(6) < Opcodes.V1_7) {
+            return false; // 类加载时改写, 使用改写时分配的方法ID
+        }
+        int sampleRate = agentArgs.getSampleRate(className);
+        String key = cache.key(className, sampleRate, classBytes);
+        if (cache.contains(key)) {
+            return false;
+        }
+        transform(reader, cw, sampleRate, matcher);
+        cache.putPrescanned(key, cw.toByteArray());
+        return true;
+    }
+
+    /**
+     * 释放预扫描保存在内存中的改写结果, 参见TransformCache.releasePrescanned
+     */
+    void releasePrescanned() {
+        cache.releasePrescanned();
+    }
+
+    /**
+     * 改写类文件, 返回改写结果是否可以缓存(启用了缓存且类文件版本不低于1.7)
+     */
+    private boolean transform(ClassReader reader, ClassWriter cw, int sampleRate, MethodMatcher matcher) {
+        TimeClassTransformer cv = new TimeClassTransformer(Opcodes.ASM9, cw, sampleRate, matcher, cache != null);
+        // 如果MethodVisitor存在LocalVariablesSorter则，需使用EXPAND_FRAMES参数
+        reader.accept(cv, ClassReader.EXPAND_FRAMES);
+        return cv.isCacheable();
+    }
+
+    /**
+     * 扩展ClassWriter，优先使用线程上下文类加载器，避免加载到项目类出现ClassNotFoundException
+     */
+    private static class ContextClassWriter extends ClassWriter {
+        ContextClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES);
+        }
+
+        /**
+         * 首先使用线程上下文类加载器，否则使用本类的加载器
+         */
+        @Override
+        protected ClassLoader getClassLoader() {
+            ClassLoader cl = null;
+
+            try {
+                cl = Thread.currentThread().getContextClassLoader();
+            } catch (Throwable ex) {
+            }
+
+            if (cl == null) {
+                cl = getClass().getClassLoader();
+                if (cl == null) {
+                    try {
+                        cl = ClassLoader.getSystemClassLoader();
+                    } catch (Throwable ex) {
+                    }
+                }
+            }
+            return cl;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.openjava.asm.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 改写结果的缓存: 键为类名、采样率、类文件内容、规则版本及agent jar的SHA-256摘要, 类文件或规则变化后自然失效,
+ * 重启时直接使用上次运行的改写结果, 不再解析类文件和计算栈帧
+ *
+ * 配置了缓存目录(agent参数cache)时改写结果写入目录, 文件名为键, 先写临时文件再原子重命名, 多个JVM可以共享同一目录;
+ * 未配置缓存目录时预扫描(参见ClassPrescanner)的改写结果保存在内存中, 类加载时取出后即移除, 预扫描结束一段时间后
+ * 释放(从未加载的类及预扫描之前已加载的类不会被取出); 缓存目录中的文件不会自动清理
+ *
+ * 缓存的字节码不能包含本次运行分配的方法ID, 改写时使用可缓存模式(参见TimeMethodVisitor)
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class TransformCache {
+    static final String CACHE_OPTION = "cache";
+
+    // 改写结果的格式版本, 改写逻辑变化且agent jar不变时(如开发调试)需要修改;
+    // 版本2: 修正_start与原方法变量共用slot的问题, 版本1缓存的字节码记录的耗时错误, 不再使用
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path dir; // 未配置缓存目录时为null, 只缓存预扫描的结果
+    private final byte[] salt;
+    // 未配置缓存目录时保存预扫描的改写结果, 释放后为null
+    private volatile ConcurrentMap<String, byte[]> prescanned;
+
+    TransformCache(Path dir, TransformRules rules) {
+        this.dir = dir;
+        this.prescanned = dir == null ? new ConcurrentHashMap<>() : null;
+        this.salt = (FORMAT_VERSION + ";" + rules.getVersion() + ";" + agentVersion()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static TransformCache create(AgentArgs args, TransformRules rules) throws IOException {
+        String dir = args.get(CACHE_OPTION);
+        if (dir != null && !dir.isEmpty()) {
+            return new TransformCache(Files.createDirectories(Paths.get(dir)), rules);
+        }
+        return args.get(ClassPrescanner.PRESCAN_OPTION) != null ? new TransformCache(null, rules) : null;
+    }
+
+    /**
+     * 缓存键, className为内部类名(以/分隔)
+     */
+    String key(String className, int sampleRate, byte[] classBytes) {
+        MessageDigest digest = sha256();
+        digest.update(salt);
+        digest.update(className.getBytes(StandardCharsets.UTF_8));
+        digest.update(ByteBuffer.allocate(4).putInt(sampleRate).array());
+        digest.update(classBytes);
+        return TransformRules.toHex(digest.digest());
+    }
+
+    /**
+     * 获取缓存的改写结果, 没有缓存时返回null
+     */
+    byte[] get(String key) {
+        if (dir == null) {
+            ConcurrentMap<String, byte[]> prescanned = this.prescanned;
+            return prescanned == null ? null : prescanned.remove(key);
+        }
+        try {
+            return Files.readAllBytes(path(key));
+        } catch (IOException ex) {
+            return null; // 文件不存在或不可读时重新改写
+        }
+    }
+
+    boolean contains(String key) {
+        if (dir == null) {
+            ConcurrentMap<String, byte[]> prescanned = this.prescanned;
+            return prescanned != null && prescanned.containsKey(key);
+        }
+        return Files.exists(path(key));
+    }
+
+    void put(String key, byte[] classBytes) {
+        if (dir == null) {
+            return;
+        }
+        Path file = path(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, classBytes);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * 保存预扫描的改写结果: 配置了缓存目录时只写入目录, 否则保存在内存中, 释放后不再保存
+     */
+    void putPrescanned(String key, byte[] classBytes) {
+        if (dir != null) {
+            put(key, classBytes);
+            return;
+        }
+        ConcurrentMap<String, byte[]> prescanned = this.prescanned;
+        if (prescanned != null) {
+            prescanned.put(key, classBytes);
+        }
+    }
+
+    /**
+     * 预扫描结束且启动阶段的类加载完成后释放内存中的改写结果
+     */
+    void releasePrescanned() {
+        prescanned = null;
+    }
+
+    private Path path(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key.substring(2) + ".class");
+    }
+
+    /**
+     * agent jar的版本: 路径、大小和修改时间, 升级agent后缓存失效
+     */
+    private static String agentVersion() {
+        try {
+            URL location = TransformCache.class.getProtectionDomain().getCodeSource().getLocation();
+            File file = new File(location.toURI());
+            return file.getPath() + ";" + file.length() + ";" + file.lastModified();
+        } catch (Exception ex) {
+            return "";
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.openjava.asm.agent;
+
+import org.openjava.asm.core.MethodMatcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * agent的类选择规则, 由agent参数或规则文件解析, 编译为按类名前缀索引的前缀树(参见ClassNameTrie),
+ * ClassFileTransformer.transform在解析类文件之前根据类名筛选, 绝大多数类只需比较几个字符即被排除
+ *
+ * agent参数(参见AgentArgs), 多条规则以逗号分隔, 规则格式参见ClassRule:
+ *  include=com.diligrp.**.controller.*Controller#pay*;exclude=com.diligrp.**.dto.**;dump=com.dili.ss.component.JarCleaner
+ *  rules=/path/to/agent.rules
+ *
+ * 规则文件每行一条规则, 格式为"include|exclude|dump 规则", #开头的行为注释:
+ *  include com.diligrp.**@org.springframework.stereotype.Service
+ *  exclude com.diligrp.**.dto.**
+ *  dump    com.dili.ss.dto.Supreme
+ *
+ * include选择需要记录耗时的类和方法, exclude从中排除类, dump选择需要输出类文件的类(输出到dir目录, 配置dump规则时必须指定dir);
+ * 规则版本为include、exclude规则的摘要, 规则变化后改写结果的缓存失效(参见TransformCache)
+ *
+ * 无论规则如何配置, 以下类都不改写:
+ *  agent自身及ASM的类(org.openjava.asm.**、org.objectweb.asm.**), 改写后TimingRecorder.recordTiming等方法递归记录自身的耗时
+ *  bootstrap及平台类加载器加载的类(调用方通过acceptsLoader排除), 这些类看不到应用类加载器中的TimingRecorder, 调用时NoClassDefFoundError
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class TransformRules {
+    public static final String INCLUDE_OPTION = "include";
+    public static final String EXCLUDE_OPTION = "exclude";
+    public static final String DUMP_OPTION = "dump";
+    public static final String RULES_OPTION = "rules";
+
+    // 始终不改写的类名前缀(内部类名), 优先于include规则
+    private static final String[] RESERVED_PREFIXES = {"org/openjava/asm/", "org/objectweb/asm/"};
+    private static final ClassLoader PLATFORM_LOADER = ClassLoader.getSystemClassLoader().getParent();
+
+    private final ClassNameTrie includes = new ClassNameTrie();
+    private final ClassNameTrie excludes = new ClassNameTrie();
+    private final ClassNameTrie dumps = new ClassNameTrie();
+    private final List<String> transformRules = new ArrayList<>(); // 影响改写结果的规则, 用于计算规则版本
+    private String version;
+
+    private TransformRules() {
+    }
+
+    public static TransformRules parse(AgentArgs args) throws IOException {
+        TransformRules rules = new TransformRules();
+        rules.addAll(INCLUDE_OPTION, args.get(INCLUDE_OPTION));
+        rules.addAll(EXCLUDE_OPTION, args.get(EXCLUDE_OPTION));
+        rules.addAll(DUMP_OPTION, args.get(DUMP_OPTION));
+        String file = args.get(RULES_OPTION);
+        if (file != null) {
+            rules.load(Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8));
+        }
+        // dump规则输出类文件到dir目录, 在premain时检查, 避免类加载时才失败
+        String dir = args.get(AgentArgs.DIR_OPTION);
+        if (!rules.dumps.isEmpty() && (dir == null || dir.isEmpty())) {
+            throw new IllegalArgumentException("Dump rules require agent option: " + AgentArgs.DIR_OPTION);
+        }
+        rules.version = digest(String.join("\n", rules.transformRules));
+        return rules;
+    }
+
+    /**
+     * 获取类的方法选择器, 类不需要改写时返回null; className为内部类名(以/分隔)
+     */
+    public MethodMatcher matchTransform(String className) {
+        if (className == null || isReserved(className)) {
+            return null;
+        }
+        List<ClassRule> matched = includes.all(className);
+        if (matched == null || excludes.first(className) != null) {
+            return null;
+        }
+        if (matched.size() == 1) {
+            return matched.get(0)::matchesMethod;
+        }
+        return (methodName, classAnnotations, methodAnnotations) -> {
+            for (ClassRule rule : matched) {
+                if (rule.matchesMethod(methodName, classAnnotations, methodAnnotations)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * 类加载器加载的类是否可以改写: bootstrap类加载器(null)及平台类加载器(系统类加载器的父加载器)加载的类不改写
+     */
+    public static boolean acceptsLoader(ClassLoader loader) {
+        return loader != null && loader != PLATFORM_LOADER;
+    }
+
+    private static boolean isReserved(String className) {
+        for (String prefix : RESERVED_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 类文件是否需要输出
+     */
+    public boolean matchDump(String className) {
+        return className != null && dumps.first(className) != null;
+    }
+
+    public boolean isEmpty() {
+        return includes.isEmpty() && dumps.isEmpty();
+    }
+
+    /**
+     * 规则版本: include和exclude规则(含顺序)的SHA-256摘要
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    private void load(List<String> lines) {
+        for (String line : lines) {
+            String text = line.trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                continue;
+            }
+            String[] parts = text.split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid transform rule: " + line);
+            }
+            add(parts[0], parts[1]);
+        }
+    }
+
+    private void addAll(String type, String rules) {
+        if (rules == null || rules.trim().isEmpty()) {
+            return;
+        }
+        for (String rule : rules.split(",")) {
+            add(type, rule);
+        }
+    }
+
+    private void add(String type, String rule) {
+        if (INCLUDE_OPTION.equals(type)) {
+            includes.add(ClassRule.parse(rule));
+        } else if (EXCLUDE_OPTION.equals(type)) {
+            excludes.add(ClassRule.parse(rule));
+        } else if (DUMP_OPTION.equals(type)) {
+            dumps.add(ClassRule.parse(rule));
+            return;
+        } else {
+            throw new IllegalArgumentException("Invalid transform rule: " + type + " " + rule);
+        }
+        transformRules.add(type + " " + rule.trim());
+    }
+
+    static String digest(String text) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,21 @@
+package org.openjava.asm.core;
+
+import java.util.List;
+
+/**
+ * 判断方法是否需要改写, 由TimeMethodVisitor在读取方法的注解之后、改写方法体之前调用
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@FunctionalInterface
+public interface MethodMatcher {
+    MethodMatcher ALL = (methodName, classAnnotations, methodAnnotations) -> true;
+
+    /**
+     * @param methodName 方法名
+     * @param classAnnotations 类的注解描述符, 如: Lorg/springframework/stereotype/Service;
+     * @param methodAnnotations 方法的注解描述符
+     */
+    boolean matches(String methodName, List<String> classAnnotations, List<String> methodAnnotations);
+}
@@ -0,0 +1,114 @@
+package org.openjava.asm.core;
+
+/**
+ * 方法耗时统计快照, 由TimingRecorder合并各分段数据生成; 百分位耗时为所在分桶的上界, 相对误差不超过12.5%
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class MethodTiming {
+    private final String method;
+    private final int sampleRate;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] histogram;
+
+    MethodTiming(String method, int sampleRate, long count, long totalNanos, long maxNanos, long[] histogram) {
+        this.method = method;
+        this.sampleRate = sampleRate;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.histogram = histogram;
+    }
+
+    /**
+     * 方法描述: 类名.方法名方法描述符
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 采样率: 每sampleRate次调用平均记录1次, 1表示记录每次调用
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 记录的调用次数, 采样模式下估算的调用次数为count * sampleRate; 耗时的平均值、百分位和最大值均来自记录的调用
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    public long getP999Nanos() {
+        return getPercentileNanos(99.9);
+    }
+
+    /**
+     * 百分位耗时, percentile取值(0, 100]
+     */
+    public long getPercentileNanos(double percentile) {
+        long threshold = Math.max((long) Math.ceil(count * percentile / 100), 1);
+        long accumulated = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            accumulated += histogram[i];
+            if (accumulated >= threshold) {
+                return Math.min(TimingRecorder.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    long[] histogram() {
+        return histogram;
+    }
+
+    MethodTiming withMaxNanos(long maxNanos) {
+        return new MethodTiming(method, sampleRate, count, totalNanos, maxNanos, histogram);
+    }
+
+    /**
+     * 从start到当前的增量统计
+     */
+    MethodTiming since(MethodTiming start, long maxNanos) {
+        long[] delta = new long[histogram.length];
+        for (int i = 0; i < delta.length; i++) {
+            delta[i] = histogram[i] - start.histogram[i];
+        }
+        return new MethodTiming(method, sampleRate, count - start.count, totalNanos - start.totalNanos, maxNanos, delta);
+    }
+
+    @Override
+    public String toString() {
+        if (sampleRate > 1) {
+            return String.format("%s sampled=1/%d count=%d mean=%dns p50=%dns p99=%dns p999=%dns max=%dns", method, sampleRate,
+                count, getMeanNanos(), getP50Nanos(), getP99Nanos(), getP999Nanos(), maxNanos);
+        }
+        return String.format("%s count=%d mean=%dns p50=%dns p99=%dns p999=%dns max=%dns", method, count, getMeanNanos(),
+            getP50Nanos(), getP99Nanos(), getP999Nanos(), maxNanos);
+    }
+}
@@ -6,11 +6,13 @@ import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
 import org.objectweb.asm.signature.SignatureReader;
 import org.objectweb.asm.signature.SignatureVisitor;
 import org.objectweb.asm.signature.SignatureWriter;
 import org.openjava.asm.util.ProxyClass;
 import org.openjava.asm.util.ProxyMethod;
+import org.openjava.asm.util.SentinelMethod;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -21,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class SentinelClassTransformer extends ClassVisitor implements Opcodes {
+    static final String SENTINEL_METHOD_DESCRIPTOR = Type.getDescriptor(SentinelMethod.class);
 
     private ProxyClass proxyClass;
 
@@ -87,10 +90,20 @@ public class SentinelClassTransformer extends ClassVisitor implements Opcodes {
         return new MethodVisitor(api, null) {
             @Override
             public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
-                if ("Lorg/openjava/asm/util/SentinelMethod;".equals(descriptor)) {
-                    proxyClass.addMethod(ProxyMethod.of(access, name, desc, signature));
+                if (SENTINEL_METHOD_DESCRIPTOR.equals(descriptor)) {
+                    ProxyMethod method = ProxyMethod.of(access, name, desc, signature);
+                    proxyClass.addMethod(method);
+                    return new AnnotationVisitor(api) {
+                        @Override
+                        public void visit(String name, Object value) {
+                            // 未声明的属性不出现在字节码中, 使用ProxyMethod的默认值
+                            if ("threshold".equals(name)) {
+                                method.setThreshold((Long) value);
+                            }
+                        }
+                    };
                 }
-                return null; // TODO: 获取注解属性
+                return null;
             }
         };
     }
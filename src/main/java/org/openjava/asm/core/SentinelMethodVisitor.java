@@ -6,39 +6,55 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.LocalVariablesSorter;
+import org.openjava.asm.util.ProxyMethod;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * 生成代理类方法，代理类继承自被代理类
  *  public int add(int i, int j) {
- *      long _start = System.currentTimeMillis();
+ *      long _start = System.nanoTime();
  *      try {
  *          return super.add(i, j);
  *      } catch (Exception ex) {
  *          System.out.println("Do something while exception");
  *          throw ex;
  *      } finally {
- *          System.out.println(System.currentTimeMillis() - _start);
+ *          long _elapsed = System.nanoTime() - _start;
+ *          TimingRecorder.recordTiming(methodId, _elapsed);
+ *          if (_elapsed > thresholdNanos) {
+ *              SlowCallReporter.report(methodId, _elapsed, thresholdNanos);
+ *          }
  *      }
  *  }
  *
  *  public void add(int i, int j) {
- *      long _start = System.currentTimeMillis();
+ *      long _start = System.nanoTime();
  *      try {
  *          super.add(i, j);
  *      } catch (Exception ex) {
  *          System.out.println("Do something while exception");
  *          throw ex;
  *      } finally {
- *          System.out.println(System.currentTimeMillis() - _start);
+ *          long _elapsed = System.nanoTime() - _start;
+ *          TimingRecorder.recordTiming(methodId, _elapsed);
+ *          if (_elapsed > thresholdNanos) {
+ *              SlowCallReporter.report(methodId, _elapsed, thresholdNanos);
+ *          }
  *      }
  *  }
+ *
+ * 代理类通常离线生成后在其他JVM中加载, methodId不能在生成时分配, 由invokedynamic在运行时获取(参见TimingRecorder.methodId)
  */
 public class SentinelMethodVisitor extends MethodVisitor implements Opcodes {
+    private static final String REPORTER_INTERNAL_NAME = Type.getInternalName(SlowCallReporter.class);
+
     private boolean allowForMethod; // 是否允许方法被代理
     private LocalVariablesSorter lvs;
     private String name; //方法名
     private String desc; //方法类型描述
     private String superName; //超类名称
+    private long threshold = ProxyMethod.DEFAULT_THRESHOLD; // 方法执行时间阀值(毫秒)
 
     public SentinelMethodVisitor(final int api, final MethodVisitor mv, final int access, final String name,
                                  final String desc, final String superName) {
@@ -53,10 +69,18 @@ public class SentinelMethodVisitor extends MethodVisitor implements Opcodes {
 
     @Override
     public AnnotationVisitor visitAnnotation(final String descriptor, final boolean visible) {
-        if ("Lorg/openjava/service/adapter/SentinelMethod;".equals(descriptor)) {
+        if (SentinelClassTransformer.SENTINEL_METHOD_DESCRIPTOR.equals(descriptor)) {
             allowForMethod = true;
+            return new AnnotationVisitor(api) {
+                @Override
+                public void visit(final String name, final Object value) {
+                    if ("threshold".equals(name)) {
+                        threshold = (Long) value;
+                    }
+                }
+            };
         }
-        return visitAnnotation(descriptor, visible); // 代理类将忽略annotation
+        return null; // 代理类将忽略annotation
     }
 
     @Override
@@ -83,8 +107,12 @@ public class SentinelMethodVisitor extends MethodVisitor implements Opcodes {
         lvs.visitTryCatchBlock(L0, L1, L3, null);
         lvs.visitTryCatchBlock(L2, L4, L3, null); // 一直没搞懂为啥 L2-L4之间的异常(为啥不是L2-L3呢，换成L3也能正常生成代码)，Handler是L3
 
+        // 按代理类(参见SentinelClassTransformer)记录耗时, 超类方法同时被TimeMethodVisitor改写时不重复计数
+        String method = superName.replace('/', '.') + "Proxy." + name + desc;
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(threshold); // 阀值作为常量写入代理方法
         int _start = lvs.newLocal(Type.LONG_TYPE);
-        lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
+        int _elapsed = lvs.newLocal(Type.LONG_TYPE); // 正常返回和异常两条路径共用
+        lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
         lvs.visitVarInsn(LSTORE, _start);
         lvs.visitLabel(L0);
 
@@ -104,11 +132,7 @@ public class SentinelMethodVisitor extends MethodVisitor implements Opcodes {
         }
 
         lvs.visitLabel(L1);
-        lvs.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-        lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-        lvs.visitVarInsn(LLOAD, _start);
-        lvs.visitInsn(LSUB);
-        lvs.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(J)V", false);
+        visitRecordTiming(lvs, method, thresholdNanos, _start, _elapsed);
         if (_returnValue != -1) {
             lvs.visitVarInsn(returnType.getOpcode(ILOAD), _returnValue);
         }
@@ -128,15 +152,46 @@ public class SentinelMethodVisitor extends MethodVisitor implements Opcodes {
         lvs.visitVarInsn(ASTORE, _throwable);
 
         lvs.visitLabel(L4);
-        lvs.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-        lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-        lvs.visitVarInsn(LLOAD, _start);
-        lvs.visitInsn(LSUB);
-        lvs.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(J)V", false);
+        visitRecordTiming(lvs, method, thresholdNanos, _start, _elapsed);
         lvs.visitVarInsn(ALOAD, _throwable);
         lvs.visitInsn(ATHROW);
     }
 
+    /**
+     * 生成记录耗时的代码, 慢调用只在超过阀值时上报; methodId通过invokedynamic获取, 在计算耗时之后, 首次调用时引导方法的耗时不计入:
+     *  long _elapsed = System.nanoTime() - _start;
+     *  TimingRecorder.recordTiming(methodId, _elapsed);
+     *  if (_elapsed > thresholdNanos) {
+     *      SlowCallReporter.report(methodId, _elapsed, thresholdNanos);
+     *  }
+     */
+    public static void visitRecordTiming(final MethodVisitor mv, final String method, final long thresholdNanos,
+                                         final int start, final int elapsed) {
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+        mv.visitVarInsn(LLOAD, start);
+        mv.visitInsn(LSUB);
+        mv.visitVarInsn(LSTORE, elapsed);
+        visitMethodId(mv, method);
+        mv.visitVarInsn(LLOAD, elapsed);
+        mv.visitMethodInsn(INVOKESTATIC, TimeMethodVisitor.RECORDER_INTERNAL_NAME, "recordTiming", "(IJ)V", false);
+
+        Label fast = new Label();
+        mv.visitVarInsn(LLOAD, elapsed);
+        mv.visitLdcInsn(thresholdNanos);
+        mv.visitInsn(LCMP);
+        mv.visitJumpInsn(IFLE, fast);
+        visitMethodId(mv, method);
+        mv.visitVarInsn(LLOAD, elapsed);
+        mv.visitLdcInsn(thresholdNanos);
+        mv.visitMethodInsn(INVOKESTATIC, REPORTER_INTERNAL_NAME, "report", "(IJJ)V", false);
+        mv.visitLabel(fast);
+    }
+
+    private static void visitMethodId(final MethodVisitor mv, final String method) {
+        // 不修改已注册方法的采样率(如agent参数sample配置的采样率)
+        mv.visitInvokeDynamicInsn("methodId", "()I", TimeMethodVisitor.METHOD_ID_BOOTSTRAP, method, TimingRecorder.KEEP_SAMPLE_RATE);
+    }
+
     @Override
     public void visitMaxs(final int maxStack, final int maxLocals) {
         // 使用ClassWriter.COMPUTE_FRAMES参数则自动计算(不会使用父类的maxStack maxLocals)，人工触发调用
@@ -0,0 +1,58 @@
+package org.openjava.asm.core;
+
+/**
+ * 一次超过@SentinelMethod阀值的方法调用, 由SlowCallReporter的后台线程创建并交给SlowCallListener
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class SlowCall {
+    private final String method;
+    private final String thread;
+    private final long elapsedNanos;
+    private final long thresholdNanos;
+    private final long timestamp;
+
+    SlowCall(String method, String thread, long elapsedNanos, long thresholdNanos, long timestamp) {
+        this.method = method;
+        this.thread = thread;
+        this.elapsedNanos = elapsedNanos;
+        this.thresholdNanos = thresholdNanos;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 方法描述: 类名.方法名方法描述符
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 调用方法的线程名称
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * 方法返回的时间(System.currentTimeMillis)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s consumes %d milliseconds on thread %s, threshold %d milliseconds", method,
+            elapsedNanos / 1_000_000, thread, thresholdNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,12 @@
+package org.openjava.asm.core;
+
+/**
+ * 慢调用监听器, 在SlowCallReporter的后台线程中调用, 不影响被监控方法的执行
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@FunctionalInterface
+public interface SlowCallListener {
+    void onSlowCall(SlowCall call);
+}
@@ -0,0 +1,136 @@
+package org.openjava.asm.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 慢调用上报: SentinelClassTransformer生成的代理方法耗时超过@SentinelMethod阀值时调用report, 将慢调用写入有界环形缓冲区,
+ * 由后台守护线程取出后交给SlowCallListener, 默认输出到System.out
+ *
+ * 环形缓冲区为多生产者单消费者的无锁队列, 每个槽位通过序号标识是否可写/可读: report只通过一次CAS占用槽位, 缓冲区已满时
+ * 丢弃本次上报并计数, 从不阻塞调用方; 后台线程每隔一段时间取出所有慢调用, 缓冲区容量应大于该间隔内可能出现的慢调用数量
+ *
+ * 通过系统属性配置:
+ *  asm.sentinel.buffer.size  缓冲区容量, 向上取整为2的幂, 默认1024
+ *  asm.sentinel.drain.interval  后台线程取出慢调用的间隔(毫秒), 默认100
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class SlowCallReporter {
+    public static final String BUFFER_SIZE_PROPERTY = "asm.sentinel.buffer.size";
+    public static final String DRAIN_INTERVAL_PROPERTY = "asm.sentinel.drain.interval";
+
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(Integer.getInteger(BUFFER_SIZE_PROPERTY, 1024), 2) * 2 - 1);
+    private static final int MASK = CAPACITY - 1;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(Integer.getInteger(DRAIN_INTERVAL_PROPERTY, 100), 1));
+
+    // 槽位序号: 等于tail时可写, 等于tail+1时可读, 读取后设为下一轮的tail(当前位置+容量)
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final int[] methodIds = new int[CAPACITY];
+    private static final long[] elapsedNanos = new long[CAPACITY];
+    private static final long[] thresholdNanos = new long[CAPACITY];
+    private static final long[] timestamps = new long[CAPACITY];
+    private static final Thread[] threads = new Thread[CAPACITY];
+
+    private static final AtomicLong tail = new AtomicLong();
+    private static long head; // 只由后台线程访问
+
+    private static final LongAdder reportedCount = new LongAdder();
+    private static final LongAdder droppedCount = new LongAdder();
+
+    private static volatile SlowCallListener listener = call -> System.out.println(call);
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        Thread drainer = new Thread(SlowCallReporter::drainLoop, "asm-sentinel-reporter");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private SlowCallReporter() {
+    }
+
+    /**
+     * 由代理方法调用: 上报一次慢调用, 缓冲区已满时丢弃
+     */
+    public static void report(int methodId, long elapsed, long threshold) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & MASK;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) { // 槽位还未被后台线程读取, 缓冲区已满
+                droppedCount.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+        methodIds[index] = methodId;
+        elapsedNanos[index] = elapsed;
+        thresholdNanos[index] = threshold;
+        timestamps[index] = System.currentTimeMillis();
+        threads[index] = Thread.currentThread();
+        sequences.lazySet(index, position + 1); // 发布槽位: 之前的写入对后台线程可见
+    }
+
+    /**
+     * 设置慢调用监听器, 替代默认的System.out输出
+     */
+    public static void setListener(SlowCallListener listener) {
+        SlowCallReporter.listener = listener;
+    }
+
+    /**
+     * 已交给监听器的慢调用数量
+     */
+    public static long getReportedCount() {
+        return reportedCount.sum();
+    }
+
+    /**
+     * 缓冲区已满而被丢弃的慢调用数量
+     */
+    public static long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            drain();
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            int index = (int) head & MASK;
+            if (sequences.get(index) != head + 1) {
+                return;
+            }
+            Thread thread = threads[index];
+            SlowCall call = new SlowCall(TimingRecorder.getMethod(methodIds[index]), thread.getName(),
+                elapsedNanos[index], thresholdNanos[index], timestamps[index]);
+            threads[index] = null; // 不持有线程的引用
+            sequences.lazySet(index, head + CAPACITY);
+            head++;
+            try {
+                listener.onSlowCall(call);
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+            }
+            reportedCount.increment();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.openjava.asm.core;
 
+import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -11,17 +12,56 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TimeClassTransformer extends ClassVisitor implements Opcodes {
     private boolean allowForClass;
+    private String className;
+    private int sampleRate; // 采样率, 参见TimeMethodVisitor
+    private MethodMatcher matcher; // 选择需要改写的方法
+    private boolean cacheable; // 是否生成不依赖本次运行方法ID的字节码, 参见TimeMethodVisitor
+    private List<String> classAnnotations = new ArrayList<>();
     public TimeClassTransformer(int api, ClassVisitor cv) {
+        this(api, cv, 1);
+    }
+
+    public TimeClassTransformer(int api, ClassVisitor cv, int sampleRate) {
+        this(api, cv, sampleRate, MethodMatcher.ALL);
+    }
+
+    public TimeClassTransformer(int api, ClassVisitor cv, int sampleRate, MethodMatcher matcher) {
+        this(api, cv, sampleRate, matcher, false);
+    }
+
+    public TimeClassTransformer(int api, ClassVisitor cv, int sampleRate, MethodMatcher matcher, boolean cacheable) {
         super(api, cv);
+        this.sampleRate = sampleRate;
+        this.matcher = matcher;
+        this.cacheable = cacheable;
     }
 
     public void visit(final int version, final int access, final String name, final String signature,
                       final String superName, final String[] interfaces) {
         super.visit(version, access, name, signature, superName, interfaces);
         allowForClass = allowForClass(access, name, signature);
+        className = name;
+        // invokedynamic需要1.7及以上版本的类文件, 低版本的类使用改写时分配的方法ID
+        cacheable = cacheable && (version & 0xFFFF) >= V1_7;
+    }
+
+    /**
+     * 改写结果是否可以缓存, 在类改写完成后调用
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(final String descriptor, final boolean visible) {
+        // 类的注解在所有方法之前读取
+        classAnnotations.add(descriptor);
+        return super.visitAnnotation(descriptor, visible);
     }
 
     @Override
@@ -31,8 +71,8 @@ public class TimeClassTransformer extends ClassVisitor implements Opcodes {
 
         if (allowForClass && mv != null && !"<init>".equals(name) && Modifier.isPublic(access)) {
             // TimeMethodVisitor不支改写持构造函数, TimeMethodVisitor1支持改写构造函数
-//            mv = new TimeMethodVisitor1(Opcodes.ASM9, mv, access, name, desc);
-            mv = new TimeMethodVisitor(Opcodes.ASM9, mv, access, name, desc);
+//            mv = new TimeMethodVisitor1(Opcodes.ASM9, mv, className, access, name, desc);
+            mv = new TimeMethodVisitor(Opcodes.ASM9, mv, className, access, name, desc, sampleRate, matcher, classAnnotations, cacheable);
         }
         return mv;
     }
@@ -1,28 +1,97 @@
 package org.openjava.asm.core;
 
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.LocalVariablesSorter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
+ * 记录方法耗时: 方法开始时记录System.nanoTime(), 返回或抛出异常前调用TimingRecorder.recordTiming(methodId, nanos),
+ * 方法ID在改写时分配并作为常量写入字节码
+ *
+ * 采样模式(sampleRate > 1): 方法开始时取ThreadLocalRandom的随机数, 每sampleRate次调用平均只有1次获取时间并记录耗时,
+ * 未采样的调用只增加一次随机数生成和两次比较
+ *  long _start = 0L;
+ *  if (ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+ *      _start = System.nanoTime();
+ *  }
+ *  ...
+ *  if (_start != 0L) {
+ *      TimingRecorder.recordTiming(methodId, System.nanoTime() - _start);
+ *  }
+ *
+ * 可缓存模式(cacheable): 方法ID不在改写时分配, 改写后的方法开始时通过invokedynamic获取, 首次调用时分配(参见TimingRecorder.methodId),
+ * 字节码不依赖本次运行分配的方法ID, 可以缓存后在其他JVM中使用; 调用点绑定为常量, JIT编译后与常量方法ID相同
+ *
  * @author: brenthuang
  * @date: 2022/03/17
  */
 public class TimeMethodVisitor extends LocalVariablesSorter implements Opcodes {
+    static final String RECORDER_INTERNAL_NAME = Type.getInternalName(TimingRecorder.class);
+    static final Handle METHOD_ID_BOOTSTRAP = new Handle(H_INVOKESTATIC, RECORDER_INTERNAL_NAME, "methodId",
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/String;I)Ljava/lang/invoke/CallSite;", false);
+
     private boolean allowForMethod;
     private int identifier;
+    private int methodId;
+    private int methodIdLocal; // 可缓存模式下保存方法ID的局部变量
+    private String owner;
     private String name;
-    public TimeMethodVisitor(final int api, final MethodVisitor mv, final int access, final String name, final String desc) {
+    private String desc;
+    private int sampleRate;
+    private boolean cacheable;
+    private MethodMatcher matcher;
+    private List<String> classAnnotations;
+    private List<String> methodAnnotations = new ArrayList<>();
+    public TimeMethodVisitor(final int api, final MethodVisitor mv, final String owner, final int access, final String name, final String desc) {
+        this(api, mv, owner, access, name, desc, 1);
+    }
+
+    public TimeMethodVisitor(final int api, final MethodVisitor mv, final String owner, final int access, final String name,
+                             final String desc, final int sampleRate) {
+        this(api, mv, owner, access, name, desc, sampleRate, MethodMatcher.ALL, Collections.emptyList());
+    }
+
+    public TimeMethodVisitor(final int api, final MethodVisitor mv, final String owner, final int access, final String name,
+                             final String desc, final int sampleRate, final MethodMatcher matcher, final List<String> classAnnotations) {
+        this(api, mv, owner, access, name, desc, sampleRate, matcher, classAnnotations, false);
+    }
+
+    public TimeMethodVisitor(final int api, final MethodVisitor mv, final String owner, final int access, final String name,
+                             final String desc, final int sampleRate, final MethodMatcher matcher, final List<String> classAnnotations,
+                             final boolean cacheable) {
         super(api, access, desc, mv);
+        this.owner = owner;
         this.name = name;
-        allowForMethod = !"<init>".equals(name);
+        this.desc = desc;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.matcher = matcher;
+        this.classAnnotations = classAnnotations;
+        this.cacheable = cacheable;
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(final String descriptor, final boolean visible) {
+        methodAnnotations.add(descriptor);
+        return super.visitAnnotation(descriptor, visible);
     }
 
     @Override
     public void visitCode() {
         super.visitCode();
+        // 方法的注解在visitCode之前读取, 此时才能判断方法是否需要改写
+        allowForMethod = !"<init>".equals(name) && matcher.matches(name, classAnnotations, methodAnnotations);
         if (allowForMethod) {
+            if (!cacheable) {
+                methodId = TimingRecorder.register(method(), sampleRate);
+            }
             onMethodEnter();
         }
     }
@@ -47,26 +116,72 @@ public class TimeMethodVisitor extends LocalVariablesSorter implements Opcodes {
         super.visitInsn(opcode);
     }
 
+    /**
+     * newLocal返回的是改写后的变量序号, 新变量直接由mv读写, 不能再经过LocalVariablesSorter映射,
+     * 否则会被当作原方法的变量再次映射, 与原方法中同序号、同大小的变量共用一个slot
+     */
     protected void onMethodEnter() {
-        super.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
+        if (cacheable) {
+            // 方法开始时获取方法ID, 首次调用时引导方法的耗时不计入本次调用
+            methodIdLocal = newLocal(Type.INT_TYPE);
+            super.visitInvokeDynamicInsn("methodId", "()I", METHOD_ID_BOOTSTRAP, method(), sampleRate);
+            mv.visitVarInsn(ISTORE, methodIdLocal);
+        }
         identifier = newLocal(Type.LONG_TYPE);
-        super.visitVarInsn(LSTORE, identifier);
+        if (sampleRate > 1) {
+            Label skip = new Label();
+            super.visitInsn(LCONST_0);
+            mv.visitVarInsn(LSTORE, identifier);
+            super.visitMethodInsn(INVOKESTATIC, "java/util/concurrent/ThreadLocalRandom", "current", "()Ljava/util/concurrent/ThreadLocalRandom;", false);
+            pushInt(sampleRate);
+            super.visitMethodInsn(INVOKEVIRTUAL, "java/util/concurrent/ThreadLocalRandom", "nextInt", "(I)I", false);
+            super.visitJumpInsn(IFNE, skip);
+            super.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+            mv.visitVarInsn(LSTORE, identifier);
+            super.visitLabel(skip);
+        } else {
+            super.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+            mv.visitVarInsn(LSTORE, identifier);
+        }
     }
 
     protected void onMethodExit(final int opcode) {
-        super.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-        super.visitLdcInsn(name + " consumes %d milliseconds......");
-        super.visitInsn(ICONST_1);
-        super.visitTypeInsn(ANEWARRAY, "java/lang/Object");
-        super.visitInsn(DUP);
-        super.visitInsn(ICONST_0);
-
-        super.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-        super.visitVarInsn(LLOAD, identifier);
+        Label skip = null;
+        if (sampleRate > 1) { // 未采样的调用_start为0
+            skip = new Label();
+            mv.visitVarInsn(LLOAD, identifier);
+            super.visitInsn(LCONST_0);
+            super.visitInsn(LCMP);
+            super.visitJumpInsn(IFEQ, skip);
+        }
+        // TimingRecorder.recordTiming(methodId, System.nanoTime() - _start), 不分配对象
+        if (cacheable) {
+            mv.visitVarInsn(ILOAD, methodIdLocal);
+        } else {
+            pushInt(methodId);
+        }
+        super.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+        mv.visitVarInsn(LLOAD, identifier);
         super.visitInsn(LSUB);
-        super.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;", false);
-        super.visitInsn(AASTORE);
-        super.visitMethodInsn(INVOKESTATIC, "java/lang/String", "format", "(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;", false);
-        super.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(Ljava/lang/String;)V", false);
+        super.visitMethodInsn(INVOKESTATIC, RECORDER_INTERNAL_NAME, "recordTiming", "(IJ)V", false);
+        if (skip != null) {
+            super.visitLabel(skip);
+        }
+    }
+
+    private String method() {
+        return owner.replace('/', '.') + "." + name + desc;
+    }
+
+    private void pushInt(final int value) {
+        if (value <= 5) {
+            super.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            super.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            super.visitIntInsn(SIPUSH, value);
+        } else {
+            super.visitLdcInsn(value);
+        }
     }
 }
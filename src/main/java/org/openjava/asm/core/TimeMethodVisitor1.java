@@ -6,33 +6,24 @@ import org.objectweb.asm.commons.AdviceAdapter;
 
 public class TimeMethodVisitor1 extends AdviceAdapter {
     private int identifier;
-    private String name;
-    protected TimeMethodVisitor1(int api, MethodVisitor mv, int access, String name, String desc) {
+    private int methodId;
+    protected TimeMethodVisitor1(int api, MethodVisitor mv, String owner, int access, String name, String desc) {
         super(api, mv, access, name, desc);
-        this.name = name;
+        this.methodId = TimingRecorder.register(owner.replace('/', '.') + "." + name + desc);
     }
 
     protected void onMethodEnter() {
-        visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
+        visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
         identifier = newLocal(Type.LONG_TYPE);
-        visitVarInsn(LSTORE, identifier);
+        storeLocal(identifier); // 新变量不能再经过visitVarInsn映射
     }
 
     protected void onMethodExit(int opcode) {
-        visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-        visitLdcInsn(name + " consumes %d milliseconds......");
-        visitInsn(ICONST_1);
-        visitTypeInsn(ANEWARRAY, "java/lang/Object");
-        visitInsn(DUP);
-        visitInsn(ICONST_0);
-
-        visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-        visitVarInsn(LLOAD, identifier);
+        push(methodId);
+        visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+        loadLocal(identifier);
         visitInsn(LSUB);
-        visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;", false);
-        visitInsn(AASTORE);
-        visitMethodInsn(INVOKESTATIC, "java/lang/String", "format", "(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;", false);
-        visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(Ljava/lang/String;)V", false);
+        visitMethodInsn(INVOKESTATIC, TimeMethodVisitor.RECORDER_INTERNAL_NAME, "recordTiming", "(IJ)V", false);
     }
 
 //    public void visitMaxs(int maxStack, int maxLocals) {
@@ -0,0 +1,157 @@
+package org.openjava.asm.core;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.ObjectName;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法耗时监控: 第一个方法注册到TimingRecorder时启动, 使用一个守护线程定时结束TimingRecorder的统计周期以维护滑动窗口,
+ * 按需定时输出窗口内的耗时统计, 并通过JMX发布(参见TimingMonitorMXBean)
+ *
+ * 通过系统属性配置:
+ *  asm.timing.interval       统计周期(秒), 默认10
+ *  asm.timing.windows        滑动窗口包含的已结束周期数, 默认6, 即窗口统计最近60~70秒的调用
+ *  asm.timing.dump.interval  定时输出的间隔(秒), 默认0不输出
+ *  asm.timing.dump.location  定时输出追加写入的文件, 未设置时输出到System.out
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class TimingMonitor implements TimingMonitorMXBean {
+    public static final String OBJECT_NAME = "org.openjava.asm.core:type=TimingMonitor";
+    public static final String INTERVAL_PROPERTY = "asm.timing.interval";
+    public static final String WINDOWS_PROPERTY = "asm.timing.windows";
+    public static final String DUMP_INTERVAL_PROPERTY = "asm.timing.dump.interval";
+    public static final String DUMP_LOCATION_PROPERTY = "asm.timing.dump.location";
+
+    static final int INTERVAL = Math.max(Integer.getInteger(INTERVAL_PROPERTY, 10), 1);
+    static final int WINDOWS = Math.max(Integer.getInteger(WINDOWS_PROPERTY, 6), 1);
+    private static final int DUMP_INTERVAL = Integer.getInteger(DUMP_INTERVAL_PROPERTY, 0);
+    private static final String DUMP_LOCATION = System.getProperty(DUMP_LOCATION_PROPERTY);
+
+    private static final TimingMonitor INSTANCE = new TimingMonitor();
+
+    private static final Comparator<MethodTiming> BY_TOTAL_NANOS = Comparator.comparingLong(MethodTiming::getTotalNanos).reversed();
+
+    private volatile boolean started;
+
+    private TimingMonitor() {
+    }
+
+    public static TimingMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 启动定时任务并注册到平台MBeanServer, 重复调用无影响
+     */
+    void start() {
+        if (started) {
+            return;
+        }
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "asm-timing-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(() -> runQuietly(TimingRecorder::tick), INTERVAL, INTERVAL, TimeUnit.SECONDS);
+            if (DUMP_INTERVAL > 0) {
+                executor.scheduleAtFixedRate(() -> runQuietly(this::dumpTo), DUMP_INTERVAL, DUMP_INTERVAL, TimeUnit.SECONDS);
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            } catch (InstanceAlreadyExistsException ex) {
+                // 其他类加载器中的TimingMonitor已注册
+            } catch (Exception | LinkageError ex) {
+                // 没有java.management模块或无权限时不发布JMX, 不影响耗时记录
+            }
+        }
+    }
+
+    @Override
+    public int getMethodCount() {
+        return TimingRecorder.getTimings().size();
+    }
+
+    @Override
+    public int getWindowSeconds() {
+        return INTERVAL * WINDOWS;
+    }
+
+    @Override
+    public List<MethodTiming> getWindowTimings() {
+        List<MethodTiming> timings = TimingRecorder.getWindowTimings();
+        timings.sort(BY_TOTAL_NANOS);
+        return timings;
+    }
+
+    @Override
+    public List<MethodTiming> getTotalTimings() {
+        List<MethodTiming> timings = TimingRecorder.getTimings();
+        timings.sort(BY_TOTAL_NANOS);
+        return timings;
+    }
+
+    @Override
+    public long getSlowCallCount() {
+        return SlowCallReporter.getReportedCount();
+    }
+
+    @Override
+    public long getDroppedSlowCallCount() {
+        return SlowCallReporter.getDroppedCount();
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()))
+            .append(" method timings in last ").append(getWindowSeconds()).append(" seconds").append(System.lineSeparator());
+        for (MethodTiming timing : getWindowTimings()) {
+            builder.append("  ").append(timing).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    private void dumpTo() throws Exception {
+        String content = dump();
+        if (DUMP_LOCATION == null) {
+            System.out.print(content);
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(DUMP_LOCATION, true), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+
+    /**
+     * 定时任务抛出异常后将不再执行, 因此忽略异常
+     */
+    private static void runQuietly(Task task) {
+        try {
+            task.run();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+}
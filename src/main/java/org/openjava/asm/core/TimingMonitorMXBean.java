@@ -0,0 +1,46 @@
+package org.openjava.asm.core;
+
+import java.util.List;
+
+/**
+ * 方法耗时统计的JMX接口, ObjectName: org.openjava.asm.core:type=TimingMonitor, 参见TimingMonitor
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface TimingMonitorMXBean {
+    /**
+     * 已注册(被改写)的方法数量
+     */
+    int getMethodCount();
+
+    /**
+     * 滑动窗口的时长(秒), 窗口统计包含最近windows个已结束的周期和当前周期
+     */
+    int getWindowSeconds();
+
+    /**
+     * 滑动窗口内被调用过的方法的耗时统计, 按总耗时降序
+     */
+    List<MethodTiming> getWindowTimings();
+
+    /**
+     * 所有方法自开始记录以来的耗时统计, 按总耗时降序
+     */
+    List<MethodTiming> getTotalTimings();
+
+    /**
+     * 已上报的慢调用(超过@SentinelMethod阀值)数量, 参见SlowCallReporter
+     */
+    long getSlowCallCount();
+
+    /**
+     * 慢调用缓冲区已满而被丢弃的慢调用数量
+     */
+    long getDroppedSlowCallCount();
+
+    /**
+     * 滑动窗口内耗时统计的文本格式, 与定时输出的内容相同
+     */
+    String dump();
+}
@@ -0,0 +1,295 @@
+package org.openjava.asm.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 方法耗时记录: TimeMethodVisitor改写的方法及SentinelClassTransformer生成的代理方法在返回前调用
+ * recordTiming(methodId, nanos)记录本次调用耗时
+ *
+ * 方法ID在改写字节码时通过register分配并作为常量写入字节码, 运行时按ID直接定位方法的统计数据, 不查找、不分配对象;
+ * 每个方法的统计数据按线程ID分段(stripe), 分段在线程第一次调用时创建, 每段包含调用次数、总耗时、最大耗时和耗时直方图,
+ * 多线程记录时只在同一分段内竞争, 读取时合并所有分段
+ *
+ * 直方图按对数-线性分桶(与HdrHistogram相同): 每个2的幂区间再等分为8个桶, 相对误差不超过12.5%,
+ * 超过2^40纳秒(约18分钟)的耗时计入最后一个桶, 最大耗时仍精确记录
+ *
+ * 滑动窗口: TimingMonitor每个周期调用tick保存各方法的累计数据, 窗口包含最近windows个已结束的周期和当前周期,
+ * 窗口统计为当前累计数据减去窗口起点的累计数据, 窗口最大耗时为窗口内各周期最大耗时的最大值
+ *
+ * 改写后的类需能访问本类, 使用agent时本类与agent位于同一jar, 由系统类加载器加载
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class TimingRecorder {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final int COUNT = 0;
+    private static final int TOTAL = 1;
+    private static final int MAX = 2; // 当前周期内的最大耗时, tick时清零
+    private static final int HISTOGRAM = 3;
+    private static final int STRIDE = HISTOGRAM + BUCKETS;
+
+    private static final int STRIPES = stripes();
+    private static final int MASK = STRIPES - 1;
+
+    // register时表示不修改已注册方法的采样率, 由SentinelMethodVisitor生成的代理方法使用
+    public static final int KEEP_SAMPLE_RATE = 0;
+
+    private static final ConcurrentMap<String, Integer> methodIds = new ConcurrentHashMap<>();
+    private static volatile Timing[] timings = new Timing[64];
+    private static int nextId;
+
+    private TimingRecorder() {
+    }
+
+    /**
+     * 改写字节码时调用: 分配方法ID, 同一方法(如类被重新转换)返回相同的ID; 第一次分配时启动TimingMonitor
+     */
+    public static int register(String method) {
+        return register(method, 1);
+    }
+
+    /**
+     * 分配采样记录的方法ID, 每sampleRate次调用平均记录1次, 重新转换时使用新的采样率;
+     * sampleRate为KEEP_SAMPLE_RATE(0)时不修改已注册方法的采样率, 新注册的方法记录每次调用
+     */
+    public static int register(String method, int sampleRate) {
+        Integer methodId = methodIds.get(method);
+        if (methodId != null) {
+            updateSampleRate(methodId, sampleRate);
+            return methodId;
+        }
+        synchronized (TimingRecorder.class) {
+            methodId = methodIds.get(method);
+            if (methodId != null) {
+                updateSampleRate(methodId, sampleRate);
+            } else {
+                int id = nextId++;
+                Timing[] current = timings;
+                if (id == current.length) {
+                    current = Arrays.copyOf(current, id * 2);
+                }
+                current[id] = new Timing(method, Math.max(sampleRate, 1), TimingMonitor.WINDOWS);
+                timings = current; // volatile写: 方法ID发布前其统计数据对所有线程可见
+                methodIds.put(method, methodId = id);
+            }
+        }
+        TimingMonitor.getInstance().start();
+        return methodId;
+    }
+
+    private static void updateSampleRate(int methodId, int sampleRate) {
+        if (sampleRate != KEEP_SAMPLE_RATE) {
+            timings[methodId].sampleRate = sampleRate;
+        }
+    }
+
+    /**
+     * 可缓存模式(参见TimeMethodVisitor)及代理方法(参见SentinelMethodVisitor)中方法ID的引导方法: 首次调用时分配方法ID, 绑定为返回方法ID的常量CallSite
+     */
+    public static CallSite methodId(MethodHandles.Lookup lookup, String name, MethodType type, String method, int sampleRate) {
+        return new ConstantCallSite(MethodHandles.constant(int.class, register(method, sampleRate)));
+    }
+
+    /**
+     * 由改写后的方法调用: 记录方法的一次调用耗时
+     */
+    public static void recordTiming(int methodId, long nanos) {
+        timings[methodId].record(nanos);
+    }
+
+    /**
+     * 获取方法ID对应的方法描述
+     */
+    static String getMethod(int methodId) {
+        return timings[methodId].method;
+    }
+
+    /**
+     * 获取方法自开始记录以来的耗时统计, 方法未注册时返回null
+     */
+    public static MethodTiming getTiming(String method) {
+        Integer methodId = methodIds.get(method);
+        return methodId == null ? null : timings[methodId].snapshot();
+    }
+
+    /**
+     * 获取所有已注册方法自开始记录以来的耗时统计
+     */
+    public static List<MethodTiming> getTimings() {
+        List<MethodTiming> result = new ArrayList<>();
+        for (Timing timing : timings) {
+            if (timing == null) {
+                break;
+            }
+            result.add(timing.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * 获取所有在滑动窗口内被调用过的方法的窗口耗时统计
+     */
+    public static List<MethodTiming> getWindowTimings() {
+        List<MethodTiming> result = new ArrayList<>();
+        for (Timing timing : timings) {
+            if (timing == null) {
+                break;
+            }
+            MethodTiming window = timing.window();
+            if (window.getCount() > 0) {
+                result.add(window);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 结束当前周期, 由TimingMonitor定时调用
+     */
+    static void tick() {
+        for (Timing timing : timings) {
+            if (timing == null) {
+                break;
+            }
+            timing.tick();
+        }
+    }
+
+    /**
+     * 耗时所在的桶: 小于8纳秒时每纳秒一个桶, 否则[2^e, 2^(e+1))区间等分为8个桶
+     */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶内的最大耗时
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift) - 1;
+    }
+
+    private static int stripes() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+        return Integer.highestOneBit(processors * 2 - 1); // 不小于CPU核数的2的幂
+    }
+
+    /**
+     * 单个方法的统计数据
+     */
+    private static class Timing {
+        private final String method;
+        private volatile int sampleRate;
+        private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+        private final MethodTiming[] history; // 最近windows+1个周期结束时的累计数据, 其中max为该周期内的最大耗时
+        private int ticks; // 已结束的周期数
+        private volatile long maxNanos; // 已结束的周期中的最大耗时
+
+        Timing(String method, int sampleRate, int windows) {
+            this.method = method;
+            this.sampleRate = sampleRate;
+            this.history = new MethodTiming[windows + 1];
+        }
+
+        void record(long nanos) {
+            int index = (int) Thread.currentThread().getId() & MASK;
+            AtomicLongArray cells = stripes.get(index);
+            if (cells == null) {
+                cells = newStripe(index);
+            }
+            cells.getAndIncrement(COUNT);
+            cells.getAndAdd(TOTAL, nanos);
+            cells.getAndIncrement(HISTOGRAM + bucket(nanos));
+            long max;
+            while (nanos > (max = cells.get(MAX))) {
+                if (cells.compareAndSet(MAX, max, nanos)) {
+                    break;
+                }
+            }
+        }
+
+        private AtomicLongArray newStripe(int index) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(STRIDE));
+            return stripes.get(index);
+        }
+
+        /**
+         * 自开始记录以来的累计统计
+         */
+        MethodTiming snapshot() {
+            MethodTiming current = merge(false);
+            return current.withMaxNanos(Math.max(maxNanos, current.getMaxNanos()));
+        }
+
+        /**
+         * 滑动窗口内的统计: 当前累计数据减去最近windows个已结束周期之前的累计数据
+         */
+        synchronized MethodTiming window() {
+            MethodTiming current = merge(false);
+            int first = ticks - history.length; // 窗口起点在history中的周期序号, 小于0时窗口从开始记录算起
+            long max = current.getMaxNanos();
+            for (int i = Math.max(first + 1, 0); i < ticks; i++) {
+                max = Math.max(max, history[i % history.length].getMaxNanos());
+            }
+            return first < 0 ? current.withMaxNanos(max) : current.since(history[first % history.length], max);
+        }
+
+        synchronized void tick() {
+            MethodTiming current = merge(true);
+            MethodTiming previous = ticks == 0 ? null : history[(ticks - 1) % history.length];
+            if (previous != null && previous.getCount() == current.getCount() && current.getMaxNanos() == 0) {
+                current = previous.withMaxNanos(0); // 周期内没有调用, 共享直方图
+            }
+            history[ticks % history.length] = current;
+            ticks++;
+            if (current.getMaxNanos() > maxNanos) {
+                maxNanos = current.getMaxNanos();
+            }
+        }
+
+        private MethodTiming merge(boolean resetMax) {
+            long count = 0, total = 0, max = 0;
+            long[] histogram = new long[BUCKETS];
+            for (int i = 0; i < STRIPES; i++) {
+                AtomicLongArray cells = stripes.get(i);
+                if (cells == null) {
+                    continue;
+                }
+                count += cells.get(COUNT);
+                total += cells.get(TOTAL);
+                max = Math.max(max, resetMax ? cells.getAndSet(MAX, 0) : cells.get(MAX));
+                for (int j = 0; j < BUCKETS; j++) {
+                    histogram[j] += cells.get(HISTOGRAM + j);
+                }
+            }
+            return new MethodTiming(method, sampleRate, count, total, max, histogram);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.openjava.asm.proxy;
+
+import java.util.Arrays;
+
+/**
+ * 代理方法参数: 基本类型参数按原始值存储, 不装箱, 由代理类传给基本类型专用的InvocationHandler(参见IntInvocationHandler)
+ *
+ * 每个线程按调用深度复用Arguments对象, 代理方法返回后即被下一次调用复用, handler不能在代理方法返回后继续持有;
+ * 读取参数时不校验类型, 必须使用与参数类型一致的get方法
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class Arguments {
+    private static final ThreadLocal<Stack> threadStack = ThreadLocal.withInitial(Stack::new);
+
+    private final Stack stack;
+    private char[] types = new char[0]; // 参数类型描述符: Z B C S I J F D, 引用类型为L
+    private long[] values = new long[0]; // 基本类型参数的原始值, float和double为其二进制表示
+    private Object[] objects = new Object[0]; // 引用类型参数
+    private int length;
+
+    private Arguments(Stack stack) {
+        this.stack = stack;
+    }
+
+    /**
+     * 由代理类调用: 获取当前线程下一层调用的Arguments, 调用结束后由MethodProxy回收
+     */
+    public static Arguments enter(int length) {
+        return threadStack.get().push(length);
+    }
+
+    void exit() {
+        Arrays.fill(objects, 0, length, null); // 不持有参数对象的引用
+        length = 0;
+        stack.depth--;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void setBoolean(int index, boolean value) {
+        types[index] = 'Z';
+        values[index] = value ? 1 : 0;
+    }
+
+    public void setByte(int index, byte value) {
+        types[index] = 'B';
+        values[index] = value;
+    }
+
+    public void setChar(int index, char value) {
+        types[index] = 'C';
+        values[index] = value;
+    }
+
+    public void setShort(int index, short value) {
+        types[index] = 'S';
+        values[index] = value;
+    }
+
+    public void setInt(int index, int value) {
+        types[index] = 'I';
+        values[index] = value;
+    }
+
+    public void setLong(int index, long value) {
+        types[index] = 'J';
+        values[index] = value;
+    }
+
+    public void setFloat(int index, float value) {
+        types[index] = 'F';
+        values[index] = Float.floatToRawIntBits(value);
+    }
+
+    public void setDouble(int index, double value) {
+        types[index] = 'D';
+        values[index] = Double.doubleToRawLongBits(value);
+    }
+
+    public void set(int index, Object value) {
+        types[index] = 'L';
+        objects[index] = value;
+    }
+
+    public boolean getBoolean(int index) {
+        return values[index] != 0;
+    }
+
+    public byte getByte(int index) {
+        return (byte) values[index];
+    }
+
+    public char getChar(int index) {
+        return (char) values[index];
+    }
+
+    public short getShort(int index) {
+        return (short) values[index];
+    }
+
+    public int getInt(int index) {
+        return (int) values[index];
+    }
+
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    public float getFloat(int index) {
+        return Float.intBitsToFloat((int) values[index]);
+    }
+
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(values[index]);
+    }
+
+    /**
+     * 获取参数对象, 基本类型参数将被装箱
+     */
+    public Object get(int index) {
+        switch (types[index]) {
+            case 'Z':
+                return getBoolean(index);
+            case 'B':
+                return getByte(index);
+            case 'C':
+                return getChar(index);
+            case 'S':
+                return getShort(index);
+            case 'I':
+                return getInt(index);
+            case 'J':
+                return getLong(index);
+            case 'F':
+                return getFloat(index);
+            case 'D':
+                return getDouble(index);
+            default:
+                return objects[index];
+        }
+    }
+
+    /**
+     * 转换为参数数组, 基本类型参数将被装箱; 用于调用InvocationHandler等需要参数数组的方法
+     */
+    public Object[] toArray() {
+        Object[] args = new Object[length];
+        for (int i = 0; i < length; i++) {
+            args[i] = get(i);
+        }
+        return args;
+    }
+
+    private void ensureCapacity(int length) {
+        if (types.length < length) {
+            types = new char[length];
+            values = new long[length];
+            objects = new Object[length];
+        }
+        this.length = length;
+    }
+
+    /**
+     * 线程的调用栈: 代理方法嵌套调用时每一层使用不同的Arguments对象
+     */
+    private static class Stack {
+        private Arguments[] frames = new Arguments[4];
+        private int depth;
+
+        Arguments push(int length) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Arguments args = frames[depth];
+            if (args == null) {
+                frames[depth] = args = new Arguments(this);
+            }
+            depth++;
+            args.ensureCapacity(length);
+            return args;
+        }
+    }
+}
@@ -13,6 +13,9 @@ import java.io.FileOutputStream;
 import java.io.OutputStream;
 
 /**
+ * 生成的类只使用ClassWriter.COMPUTE_MAXS: 各生成器在跳转目标和异常处理器处通过visitFrame显式声明栈帧,
+ * 避免COMPUTE_FRAMES合并栈帧时调用getCommonSuperClass加载类(开销大, 在类加载器或agent中还可能死锁)
+ *
  * @author: brenthuang
  * @date: 2022/04/20
  */
@@ -41,6 +44,8 @@ abstract class AsmClassGenerator implements Opcodes {
 
     private static final Type OBJECT_TYPE = Type.getObjectType("java/lang/Object");
 
+    protected static final String ARGUMENTS_INTERNAL_NAME = "org/openjava/asm/proxy/Arguments";
+
     private static final Method BOOLEAN_VALUE = Method.getMethod("boolean booleanValue()");
 
     private static final Method CHAR_VALUE = Method.getMethod("char charValue()");
@@ -53,8 +58,8 @@ abstract class AsmClassGenerator implements Opcodes {
 
     private static final Method DOUBLE_VALUE = Method.getMethod("double doubleValue()");
 
-    protected Class generateClass() throws Exception {
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+    protected byte[] generateClassBytes() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         generateClassCode(cw);
         byte[] classBytes = cw.toByteArray();
 
@@ -74,7 +79,18 @@ abstract class AsmClassGenerator implements Opcodes {
                 ex.printStackTrace();
             }
         }
-        return ReflectUtils.defineClass(getFullName(), classBytes, getClassLoader());
+        return classBytes;
+    }
+
+    /**
+     * 生成并定义类, 类的初始化由调用方通过DefineStrategy.initialize触发
+     *
+     * @param strategy - 类定义策略
+     * @param neighbor - 与生成类同一个包的类, LOOKUP和HIDDEN策略使用
+     */
+    protected Class<?> generateClass(DefineStrategy strategy, Class<?> neighbor) throws Throwable {
+        byte[] classBytes = generateClassBytes();
+        return strategy.defineClass(getFullName(), classBytes, getClassLoader(), neighbor);
     }
 
     protected abstract void generateClassCode(ClassVisitor cv);
@@ -85,6 +101,50 @@ abstract class AsmClassGenerator implements Opcodes {
 
     protected abstract String getFullName();
 
+    /**
+     * 方法入口处的局部变量表: 非static方法为owner(this)和方法参数, static方法(owner为null)只有方法参数
+     */
+    protected static Object[] getFrameLocals(String owner, Type[] argumentTypes) {
+        int offset = owner == null ? 0 : 1;
+        Object[] locals = new Object[argumentTypes.length + offset];
+        if (owner != null) {
+            locals[0] = owner;
+        }
+        for (int i = 0; i < argumentTypes.length; i++) {
+            locals[i + offset] = getFrameType(argumentTypes[i]);
+        }
+        return locals;
+    }
+
+    /**
+     * 栈帧中的类型: boolean、byte、char、short均为INTEGER, long和double只占一项
+     */
+    protected static Object getFrameType(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+            case Type.BYTE:
+            case Type.CHAR:
+            case Type.SHORT:
+            case Type.INT:
+                return INTEGER;
+            case Type.FLOAT:
+                return FLOAT;
+            case Type.LONG:
+                return LONG;
+            case Type.DOUBLE:
+                return DOUBLE;
+            default:
+                return type.getInternalName();
+        }
+    }
+
+    /**
+     * 显式声明当前位置的完整栈帧, 必须紧跟在跳转目标或异常处理器的label之后
+     */
+    protected void visitFrame(MethodVisitor mv, Object[] locals, Object... stack) {
+        mv.visitFrame(F_NEW, locals.length, locals, stack.length, stack);
+    }
+
     protected int loadArguments(final MethodVisitor mv, final Type[] argumentTypes, final int startIndex) {
         int varIndex = startIndex;
         for (int i = 0; i < argumentTypes.length; i++) {
@@ -106,6 +166,18 @@ abstract class AsmClassGenerator implements Opcodes {
         }
     }
 
+    /**
+     * 将类型对应的Class对象压入栈顶, 基本类型使用包装类的TYPE字段
+     */
+    protected void pushClass(final MethodVisitor mv, final Type type) {
+        if (isBoxedType(type)) {
+            Type boxedType = getBoxedType(type);
+            mv.visitFieldInsn(GETSTATIC, boxedType.getInternalName(), "TYPE", "Ljava/lang/Class;");
+        } else {
+            mv.visitLdcInsn(type);
+        }
+    }
+
     protected Type getBoxedType(final Type type) {
         switch (type.getSort()) {
             case Type.BYTE:
@@ -145,6 +217,71 @@ abstract class AsmClassGenerator implements Opcodes {
         }
     }
 
+    /**
+     * 将栈顶元素在必要的时候进行box, void类型则压入null
+     */
+    protected void box(MethodVisitor mv, Type type) {
+        // Object和数组不需要进行box
+        if (type.getSort() == Type.OBJECT || type.getSort() == Type.ARRAY) {
+            return;
+        }
+        if (type == Type.VOID_TYPE) {
+            mv.visitInsn(ACONST_NULL); // Void 则赋值NULL
+        } else {
+            Type boxedType = getBoxedType(type);
+            String descriptor = Type.getMethodType(boxedType, new Type[] {type}).getDescriptor();
+            mv.visitMethodInsn(INVOKESTATIC, boxedType.getInternalName(), "valueOf", descriptor, false);
+        }
+    }
+
+    /**
+     * 将栈顶元素存入Arguments, 栈: Arguments, 参数索引, 参数值 -> 空; 基本类型不装箱
+     */
+    protected void storeArgument(MethodVisitor mv, Type type) {
+        String accessor = getArgumentAccessor(type);
+        String descriptor = accessor.isEmpty() ? "Ljava/lang/Object;" : type.getDescriptor();
+        mv.visitMethodInsn(INVOKEVIRTUAL, ARGUMENTS_INTERNAL_NAME, "set" + accessor, "(I" + descriptor + ")V", false);
+    }
+
+    /**
+     * 从Arguments中读取参数, 栈: Arguments, 参数索引 -> 参数值; 基本类型不装箱, 引用类型cast为参数类型
+     */
+    protected void loadArgument(MethodVisitor mv, Type type) {
+        String accessor = getArgumentAccessor(type);
+        if (accessor.isEmpty()) {
+            mv.visitMethodInsn(INVOKEVIRTUAL, ARGUMENTS_INTERNAL_NAME, "get", "(I)Ljava/lang/Object;", false);
+            castAndUnbox(mv, type);
+        } else {
+            mv.visitMethodInsn(INVOKEVIRTUAL, ARGUMENTS_INTERNAL_NAME, "get" + accessor, "(I)" + type.getDescriptor(), false);
+        }
+    }
+
+    /**
+     * Arguments中参数类型对应的set/get方法后缀: setInt/getInt, 引用类型为空: set/get
+     */
+    private String getArgumentAccessor(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return "Boolean";
+            case Type.BYTE:
+                return "Byte";
+            case Type.CHAR:
+                return "Char";
+            case Type.SHORT:
+                return "Short";
+            case Type.INT:
+                return "Int";
+            case Type.LONG:
+                return "Long";
+            case Type.FLOAT:
+                return "Float";
+            case Type.DOUBLE:
+                return "Double";
+            default:
+                return "";
+        }
+    }
+
     /**
      * 将栈顶元素cast并在必要的时候进行unbox
      */
@@ -1,9 +1,10 @@
 package org.openjava.asm.proxy;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author: brenthuang
@@ -11,62 +12,91 @@ import java.lang.reflect.Method;
  */
 public class AsmProxy {
     private Class<?> superClass;
+    private Class<?>[] interfaces;
     private InvocationHandler handler;
+    private boolean delegate;
+    private boolean resettable;
     private ProxyClassGenerator.ProxyBuilder builder;
+    private volatile ProxyFactory proxyFactory;
+
+    private static final Object[] EMPTY_ARGUMENTS = new Object[0];
 
     public AsmProxy() {
         builder = ProxyClassGenerator.builder();
     }
 
     public Object newInstance() {
-        if (superClass == null) {
-            throw new IllegalArgumentException("superClass needed");
+        return newInstance(null, null);
+    }
+
+    public Object newInstance(Class[] argumentTypes, Object[] arguments) {
+        if (superClass == null && interfaces == null) {
+            throw new IllegalArgumentException("superClass or interfaces needed");
         }
 
-        Class<?> c = builder.argumentTypes(null).build();
+        ProxyFactory factory = proxyFactory();
+        int index = factory.indexOf(argumentTypes);
+        if (index < 0) {
+            throw new DynamicProxyException("no appropriate constructor found");
+        }
         try {
-            bindHandler(c, handler);
-            Constructor<?> constructor = c.getConstructor(new Class[0]);
-            return constructor.newInstance();
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException iex) {
-            throw new DynamicProxyException(iex);
-        } catch (InvocationTargetException tex) {
-            throw new DynamicProxyException(tex.getTargetException());
-        } finally {
-            bindHandler(c, null);
+            return factory.newInstance(index, handler, arguments == null ? EMPTY_ARGUMENTS : arguments);
+        } catch (DynamicProxyException dex) {
+            throw dex;
+        } catch (Throwable ex) { // 与反射调用构造函数保持一致: 构造函数抛出的异常统一包装
+            throw new DynamicProxyException(ex);
         }
     }
 
-    public Object newInstance(Class[] argumentTypes, Object[] arguments) {
-        if (superClass == null) {
-            throw new IllegalArgumentException("superClass needed");
+    /**
+     * 委托模式: 创建转发给target的代理类对象(使用无参构造函数), 可通过DelegateProxy替换目标对象
+     */
+    public Object newDelegate(Object target) {
+        if (!delegate) {
+            throw new IllegalStateException("delegate mode not enabled");
         }
+        Object instance = newInstance();
+        ((DelegateProxy) instance).setProxyTarget(target);
+        return instance;
+    }
 
-        Class<?> c = builder.argumentTypes(argumentTypes).build();
-        try {
-            bindHandler(c, handler);
-            Constructor<?> constructor = c.getConstructor(argumentTypes);
-            return constructor.newInstance(arguments);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException iex) {
-            throw new DynamicProxyException(iex);
-        } catch (InvocationTargetException tex) {
-            throw new DynamicProxyException(tex.getTargetException());
-        } finally {
-            bindHandler(c, null);
+    /**
+     * 可重置模式: 创建最多保存capacity个空闲代理类对象的对象池, 对象池中的对象使用无参构造函数创建
+     */
+    public ProxyPool newPool(int capacity) {
+        if (!resettable) {
+            throw new IllegalStateException("resettable mode not enabled");
         }
+        return new ProxyPool(this::newInstance, capacity);
     }
 
-    private void bindHandler(Class<?> c, InvocationHandler h) {
-        try {
-            Method method = c.getMethod("bindHandler", InvocationHandler.class);
-            method.invoke(null, h);
-        } catch (NoSuchMethodException nex) {
-            throw new IllegalArgumentException(c + " is not an enhanced class");
-        } catch (IllegalAccessException iex) {
-            throw new DynamicProxyException(iex);
-        } catch (InvocationTargetException ex) {
-            throw new DynamicProxyException(ex.getTargetException());
+    /**
+     * 缓存代理类的ProxyFactory, 创建代理类对象时无反射调用和ThreadLocal绑定
+     */
+    private ProxyFactory proxyFactory() {
+        ProxyFactory factory = this.proxyFactory;
+        if (factory == null) {
+            this.proxyFactory = factory = ProxyFactory.of(builder.build());
         }
+        return factory;
+    }
+
+    /**
+     * 批量生成代理类: 并行生成字节码, 按类加载器分组定义; 之后各AsmProxy创建对象时直接使用已生成的代理类
+     */
+    public static void generateAll(Collection<AsmProxy> proxies) {
+        generateAll(proxies, ForkJoinPool.commonPool());
+    }
+
+    public static void generateAll(Collection<AsmProxy> proxies, ForkJoinPool pool) {
+        List<ProxyClassGenerator.ProxyBuilder> builders = new ArrayList<>(proxies.size());
+        for (AsmProxy proxy : proxies) {
+            if (proxy.superClass == null && proxy.interfaces == null) {
+                throw new IllegalArgumentException("superClass or interfaces needed");
+            }
+            builders.add(proxy.builder);
+        }
+        ProxyClassGenerator.buildAll(builders, pool);
     }
 
     public void setSuperClass(Class<?> superClass) {
@@ -74,10 +104,58 @@ public class AsmProxy {
         this.superClass = superClass;
     }
 
+    /**
+     * 代理类实现的接口, 可与setSuperClass同时使用
+     */
+    public void setInterfaces(Class<?>... interfaces) {
+        builder.interfaces(interfaces);
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * 为每个方法绑定拦截器链, 设置后handler不再生效, 参见InterceptorBinder
+     */
+    public void setInterceptorBinder(InterceptorBinder interceptorBinder) {
+        builder.interceptorBinder(interceptorBinder);
+    }
+
+    /**
+     * 延迟解析代理方法: 代理类初始化时不解析代理方法, 每个方法首次调用时才解析, 参见ProxyBuilder.lazyMethods
+     */
+    public void setLazyMethods(boolean lazyMethods) {
+        builder.lazyMethods(lazyMethods);
+    }
+
+    /**
+     * 委托模式: 代理类持有目标对象, 超类方法调用和未被代理的方法转发给目标对象, 参见DelegateProxy
+     */
+    public void setDelegate(boolean delegate) {
+        builder.delegate(delegate);
+        this.delegate = delegate;
+    }
+
+    /**
+     * 可重置模式: 代理类对象可重新绑定handler和状态对象, 参见ResettableProxy、ProxyPool
+     */
+    public void setResettable(boolean resettable) {
+        builder.resettable(resettable);
+        this.resettable = resettable;
+    }
+
     public void setClassLoader(ClassLoader classLoader) {
         builder.classLoader(classLoader);
     }
 
+    /**
+     * 设置代理类定义策略, 默认参见DefineStrategy.getDefault()
+     */
+    public void setDefineStrategy(DefineStrategy defineStrategy) {
+        builder.defineStrategy(defineStrategy);
+    }
+
+    /**
+     * handler为MethodInterceptor时, 可通过MethodProxy.invokeSuper调用超类方法, 避免Method.invoke反射调用
+     */
     public void setHandler(InvocationHandler handler) {
         this.handler = handler;
     }
@@ -85,4 +163,18 @@ public class AsmProxy {
     public void setMethodFilter(MethodFilter methodFilter) {
         builder.methodFilter(methodFilter);
     }
+
+    /**
+     * 设置MethodHandle拦截器后代理方法将通过MethodHandle直接调用, 此时不再使用InvocationHandler
+     */
+    public void setMethodHandleInterceptor(MethodHandleInterceptor interceptor) {
+        builder.methodHandleInterceptor(interceptor);
+    }
+
+    /**
+     * 设置MethodHandle拦截器时, 代理方法通过invokedynamic调用点调用, 参见ProxyBuilder.invokeDynamic
+     */
+    public void setInvokeDynamic(boolean invokeDynamic) {
+        builder.invokeDynamic(invokeDynamic);
+    }
 }
@@ -0,0 +1,142 @@
+package org.openjava.asm.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+
+/**
+ * 代理类定义策略
+ *
+ * REFLECT: 反射调用ClassLoader.defineClass, 兼容JDK8; JDK9+会出现非法反射访问警告, JDK17+需--add-opens java.base/java.lang
+ * LOOKUP: MethodHandles.Lookup.defineClass(JDK9+), 无反射访问; 代理类定义在被代理类的类加载器中, 其他类加载器时降级为REFLECT
+ * HIDDEN: MethodHandles.Lookup.defineHiddenClass(JDK15+), 代理类为hidden class, 不再被引用时可随类对象一起卸载;
+ *         hidden class无法通过名称引用, 因此不生成FastInvoker和ProxyFactory类, 改为基于MethodHandle的实现
+ *
+ * 默认策略可通过系统属性asm.proxy.defineStrategy指定, 未指定时JDK9+使用LOOKUP, 否则使用REFLECT
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public enum DefineStrategy {
+    REFLECT {
+        @Override
+        boolean isSupported(ClassLoader classLoader, Class<?> neighbor) {
+            return ReflectUtils.isDefineClassSupported();
+        }
+
+        @Override
+        Class<?> defineClass(String className, byte[] classBytes, ClassLoader classLoader, Class<?> neighbor) throws Exception {
+            return ReflectUtils.defineClass(className, classBytes, classLoader, false);
+        }
+    },
+
+    LOOKUP {
+        @Override
+        boolean isSupported(ClassLoader classLoader, Class<?> neighbor) {
+            // Lookup.defineClass只能将类定义在neighbor所在的类加载器和包中
+            return LookupHolder.DEFINE_CLASS != null && neighbor.getClassLoader() == classLoader;
+        }
+
+        @Override
+        Class<?> defineClass(String className, byte[] classBytes, ClassLoader classLoader, Class<?> neighbor) throws Throwable {
+            return (Class<?>) LookupHolder.DEFINE_CLASS.invoke(privateLookupIn(neighbor), classBytes);
+        }
+    },
+
+    HIDDEN {
+        @Override
+        boolean isSupported(ClassLoader classLoader, Class<?> neighbor) {
+            return LookupHolder.DEFINE_HIDDEN_CLASS != null && neighbor.getClassLoader() == classLoader;
+        }
+
+        @Override
+        Class<?> defineClass(String className, byte[] classBytes, ClassLoader classLoader, Class<?> neighbor) throws Throwable {
+            Object lookup = LookupHolder.DEFINE_HIDDEN_CLASS.invoke(privateLookupIn(neighbor), classBytes, false, LookupHolder.NO_CLASS_OPTIONS);
+            return ((MethodHandles.Lookup) lookup).lookupClass();
+        }
+
+        @Override
+        void initialize(Class<?> c) throws Throwable {
+            // hidden class无法通过Class.forName加载
+            LookupHolder.ENSURE_INITIALIZED.invoke(privateLookupIn(c), c);
+        }
+    };
+
+    public static final String STRATEGY_PROPERTY = "asm.proxy.defineStrategy";
+
+    /**
+     * 当前JVM是否支持该策略在classLoader中定义与neighbor同一个包的类
+     */
+    abstract boolean isSupported(ClassLoader classLoader, Class<?> neighbor);
+
+    /**
+     * 定义类但不执行类的初始化
+     */
+    abstract Class<?> defineClass(String className, byte[] classBytes, ClassLoader classLoader, Class<?> neighbor) throws Throwable;
+
+    /**
+     * 执行类的初始化(静态构造函数)
+     */
+    void initialize(Class<?> c) throws Throwable {
+        Class.forName(c.getName(), true, c.getClassLoader());
+    }
+
+    /**
+     * 获取默认的代理类定义策略
+     */
+    public static DefineStrategy getDefault() {
+        String strategy = System.getProperty(STRATEGY_PROPERTY);
+        if (strategy != null) {
+            return DefineStrategy.valueOf(strategy.trim().toUpperCase());
+        }
+        return LookupHolder.DEFINE_CLASS != null ? LOOKUP : REFLECT;
+    }
+
+    /**
+     * 根据类加载器选择实际使用的策略: 不支持时降级为REFLECT
+     */
+    DefineStrategy resolve(ClassLoader classLoader, Class<?> neighbor) {
+        return isSupported(classLoader, neighbor) ? this : REFLECT;
+    }
+
+    static MethodHandles.Lookup privateLookupIn(Class<?> c) throws Throwable {
+        return (MethodHandles.Lookup) LookupHolder.PRIVATE_LOOKUP_IN.invoke(c, MethodHandles.lookup());
+    }
+
+    /**
+     * JDK9+和JDK15+的API通过MethodHandle调用, 保证JDK8下可编译运行; API不存在时对应字段为null
+     */
+    private static class LookupHolder {
+        static final MethodHandle PRIVATE_LOOKUP_IN;
+        static final MethodHandle DEFINE_CLASS;
+        static final MethodHandle DEFINE_HIDDEN_CLASS;
+        static final MethodHandle ENSURE_INITIALIZED;
+        static final Object NO_CLASS_OPTIONS;
+
+        static {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> lookupClass = MethodHandles.Lookup.class;
+            MethodHandle privateLookupIn = null, defineClass = null;
+            MethodHandle defineHiddenClass = null, ensureInitialized = null;
+            Object noClassOptions = null;
+            try {
+                privateLookupIn = lookup.findStatic(MethodHandles.class, "privateLookupIn",
+                    MethodType.methodType(lookupClass, Class.class, lookupClass));
+                defineClass = lookup.findVirtual(lookupClass, "defineClass", MethodType.methodType(Class.class, byte[].class));
+                Class<?> optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+                noClassOptions = Array.newInstance(optionClass, 0);
+                defineHiddenClass = lookup.findVirtual(lookupClass, "defineHiddenClass",
+                    MethodType.methodType(lookupClass, byte[].class, boolean.class, noClassOptions.getClass())).asFixedArity();
+                ensureInitialized = lookup.findVirtual(lookupClass, "ensureInitialized", MethodType.methodType(Class.class, Class.class));
+            } catch (ReflectiveOperationException ex) {
+                // JDK版本较低, 不支持的策略将降级为REFLECT
+            }
+            PRIVATE_LOOKUP_IN = privateLookupIn;
+            DEFINE_CLASS = defineClass;
+            DEFINE_HIDDEN_CLASS = defineHiddenClass;
+            ENSURE_INITIALIZED = ensureInitialized;
+            NO_CLASS_OPTIONS = noClassOptions;
+        }
+    }
+}
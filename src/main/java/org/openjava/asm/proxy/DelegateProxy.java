@@ -0,0 +1,27 @@
+package org.openjava.asm.proxy;
+
+/**
+ * 委托模式的代理类实现的接口: 代理类持有目标对象, 超类方法调用(未拦截的方法、MethodProxy.invokeSuper等)转发给目标对象
+ *
+ * 目标对象保存在代理类的volatile字段中, 每次方法调用只读取一次目标对象, 替换目标对象后新的调用立即转发给新目标对象,
+ * 正在执行的调用不受影响; 目标对象为null时调用超类方法
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface DelegateProxy {
+    /**
+     * 获取当前目标对象
+     */
+    Object getProxyTarget();
+
+    /**
+     * 设置目标对象, 目标对象必须是被代理类及代理接口的实例, 否则抛出ClassCastException
+     */
+    void setProxyTarget(Object target);
+
+    /**
+     * 原子替换目标对象, 返回被替换的目标对象; 多个线程同时替换时, 每个线程获得的旧目标对象各不相同
+     */
+    Object swapProxyTarget(Object target);
+}
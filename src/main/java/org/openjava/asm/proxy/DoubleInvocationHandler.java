@@ -0,0 +1,23 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * double返回值专用的InvocationHandler: 返回值为double的代理方法调用invokeDouble, 参数通过Arguments传递, 返回值和参数均不装箱;
+ * 其他代理方法仍调用invoke(Object, Method, Object[])
+ *
+ * 调用超类方法: methodProxy.invokeSuperDouble(proxy, args), 同样不装箱
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface DoubleInvocationHandler extends InvocationHandler {
+    /**
+     * 拦截返回值为double的代理方法
+     *
+     * @param proxy - 代理类对象
+     * @param methodProxy - 代理方法, 用于调用超类方法
+     * @param args - 方法参数, 仅在本次调用中有效
+     */
+    double invokeDouble(Object proxy, MethodProxy methodProxy, Arguments args) throws Throwable;
+}
@@ -0,0 +1,62 @@
+package org.openjava.asm.proxy;
+
+/**
+ * 代理方法快速调用器: 每个代理类生成一个FastInvoker子类(代理类名$FastInvoker), 根据方法索引直接调用代理类的xxxSuper方法,
+ * 调用超类方法时无需Method.invoke反射调用
+ *
+ * public final class HellService$Proxy$FastInvoker extends FastInvoker {
+ *     public Object invoke(int index, Object proxy, Object[] args) throws Throwable {
+ *         switch (index) {
+ *             case 0:
+ *                 return ((HellService$Proxy) proxy).addSuper((Integer) args[0], (Integer) args[1]);
+ *             default:
+ *                 throw new IllegalArgumentException("Cannot find matching method");
+ *         }
+ *     }
+ *
+ *     // 基本类型返回值的方法额外生成不装箱的调用入口: invokeInt/invokeLong/invokeDouble
+ *     public int invokeInt(int index, Object proxy, Arguments args) throws Throwable {
+ *         switch (index) {
+ *             case 0:
+ *                 return ((HellService$Proxy) proxy).addSuper(args.getInt(0), args.getInt(1));
+ *             default:
+ *                 throw new IllegalArgumentException("Cannot find matching method");
+ *         }
+ *     }
+ * }
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public abstract class FastInvoker {
+    /**
+     * 调用代理类的超类方法
+     *
+     * @param index - 代理方法索引
+     * @param proxy - 代理类对象
+     * @param args - 方法参数
+     * @return 方法返回值, 基本类型返回值将被装箱, void方法返回null
+     */
+    public abstract Object invoke(int index, Object proxy, Object[] args) throws Throwable;
+
+    /**
+     * 调用返回值为int的超类方法, 参数不装箱; 生成的FastInvoker将重写该方法, 默认实现转换为参数数组调用invoke
+     */
+    public int invokeInt(int index, Object proxy, Arguments args) throws Throwable {
+        return (Integer) invoke(index, proxy, args.toArray());
+    }
+
+    /**
+     * 调用返回值为long的超类方法, 参数不装箱
+     */
+    public long invokeLong(int index, Object proxy, Arguments args) throws Throwable {
+        return (Long) invoke(index, proxy, args.toArray());
+    }
+
+    /**
+     * 调用返回值为double的超类方法, 参数不装箱
+     */
+    public double invokeDouble(int index, Object proxy, Arguments args) throws Throwable {
+        return (Double) invoke(index, proxy, args.toArray());
+    }
+}
@@ -0,0 +1,169 @@
+package org.openjava.asm.proxy;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+
+/**
+ * 代理类的FastInvoker生成器: 根据方法索引switch直接调用代理类的xxxSuper方法, 参见FastInvoker
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class FastInvokerGenerator extends AsmClassGenerator {
+    private static final String SUPER_NAME = "org/openjava/asm/proxy/FastInvoker";
+
+    private final String proxyInternalName; // 代理类内部名称: java/lang/Object$Proxy
+    private final Method[] methods; // 代理方法, 数组下标即方法索引
+    private final ClassLoader classLoader;
+
+    FastInvokerGenerator(String proxyInternalName, Method[] methods, ClassLoader classLoader) {
+        this.proxyInternalName = proxyInternalName;
+        this.methods = methods;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    protected void generateClassCode(ClassVisitor cv) {
+        // FastInvoker与代理类位于同一个包和类加载器中, 可以访问代理类非private的xxxSuper方法
+        cv.visit(V1_8, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, getInternalName(), null, SUPER_NAME, null);
+
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+
+        generateInvoke(cv);
+
+        // 基本类型返回值的方法: 参数从Arguments中读取, 返回值不装箱
+        generatePrimitiveInvoke(cv, Type.INT_TYPE, "invokeInt");
+        generatePrimitiveInvoke(cv, Type.LONG_TYPE, "invokeLong");
+        generatePrimitiveInvoke(cv, Type.DOUBLE_TYPE, "invokeDouble");
+
+        cv.visitEnd();
+    }
+
+    private void generateInvoke(ClassVisitor cv) {
+        // 方法变量表: this, index, proxy, args
+        String invokeDesc = "(ILjava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC, "invoke", invokeDesc, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        Object[] locals = getFrameLocals(getInternalName(), Type.getArgumentTypes(invokeDesc)); // 每个case的栈帧相同
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[methods.length];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new Label();
+        }
+        if (labels.length > 0) {
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+        }
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            String methodDesc = Type.getMethodDescriptor(method);
+            Type[] argumentTypes = Type.getArgumentTypes(methodDesc);
+            Type returnType = Type.getReturnType(methodDesc);
+
+            mv.visitLabel(labels[i]);
+            visitFrame(mv, locals);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitTypeInsn(CHECKCAST, proxyInternalName);
+            for (int j = 0; j < argumentTypes.length; j++) {
+                mv.visitVarInsn(ALOAD, 3);
+                pushInt(mv, j);
+                mv.visitInsn(AALOAD);
+                castAndUnbox(mv, argumentTypes[j]);
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, proxyInternalName, method.getName() + "Super", methodDesc, false);
+            box(mv, returnType);
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(defaultLabel);
+        visitFrame(mv, locals);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("Cannot find matching method");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+    }
+
+    /**
+     * 生成返回值为returnType的方法的调用入口, 不存在该返回类型的方法时使用FastInvoker的默认实现
+     */
+    private void generatePrimitiveInvoke(ClassVisitor cv, Type returnType, String name) {
+        int count = 0;
+        for (Method method : methods) {
+            if (Type.getReturnType(method).equals(returnType)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        // 方法变量表: this, index, proxy, args
+        String invokeDesc = "(ILjava/lang/Object;L" + ARGUMENTS_INTERNAL_NAME + ";)" + returnType.getDescriptor();
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC, name, invokeDesc, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        Object[] locals = getFrameLocals(getInternalName(), Type.getArgumentTypes(invokeDesc)); // 每个case的栈帧相同
+        Label defaultLabel = new Label();
+        int[] keys = new int[count];
+        Label[] labels = new Label[count];
+        for (int i = 0, j = 0; i < methods.length; i++) {
+            if (Type.getReturnType(methods[i]).equals(returnType)) {
+                keys[j] = i;
+                labels[j++] = new Label();
+            }
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitLookupSwitchInsn(defaultLabel, keys, labels);
+        for (int j = 0; j < count; j++) {
+            Method method = methods[keys[j]];
+            String methodDesc = Type.getMethodDescriptor(method);
+            Type[] argumentTypes = Type.getArgumentTypes(methodDesc);
+
+            mv.visitLabel(labels[j]);
+            visitFrame(mv, locals);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitTypeInsn(CHECKCAST, proxyInternalName);
+            for (int k = 0; k < argumentTypes.length; k++) {
+                mv.visitVarInsn(ALOAD, 3);
+                pushInt(mv, k);
+                loadArgument(mv, argumentTypes[k]);
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, proxyInternalName, method.getName() + "Super", methodDesc, false);
+            mv.visitInsn(returnType.getOpcode(IRETURN));
+        }
+        mv.visitLabel(defaultLabel);
+        visitFrame(mv, locals);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("Cannot find matching method");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+    }
+
+    @Override
+    protected ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    protected String getFullName() {
+        return getInternalName().replace('/', '.');
+    }
+
+    String getInternalName() {
+        return proxyInternalName + "$FastInvoker";
+    }
+}
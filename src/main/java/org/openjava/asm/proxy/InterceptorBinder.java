@@ -0,0 +1,30 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * 方法拦截器链绑定: 生成代理类时为每个方法绑定一次有序的拦截器链, 运行时无需根据Method查找拦截器
+ *
+ * 未绑定拦截器的方法不会被重写, 直接调用超类方法; 绑定拦截器的方法调用链中第一个拦截器,
+ * 拦截器通过methodProxy.invokeSuper调用链中的下一个拦截器, 最后一个拦截器调用超类方法
+ *
+ * MethodInterceptor[] bind(Class c, Method method) {
+ *     if (method.isAnnotationPresent(Transactional.class)) {
+ *         return new MethodInterceptor[] {LOG_INTERCEPTOR, TRANSACTION_INTERCEPTOR};
+ *     }
+ *     return null;
+ * }
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface InterceptorBinder {
+    /**
+     * 为代理方法绑定拦截器链
+     *
+     * @param c - 被代理类
+     * @param method - 被代理的方法
+     * @return 按调用顺序排列的拦截器, 返回null或空数组表示不拦截该方法
+     */
+    MethodInterceptor[] bind(Class<?> c, Method method);
+}
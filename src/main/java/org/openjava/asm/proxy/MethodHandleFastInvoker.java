@@ -0,0 +1,86 @@
+package org.openjava.asm.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * 基于MethodHandle的FastInvoker: hidden class无法被其他类通过名称引用, 因此无法生成FastInvoker类, 改为通过代理类的
+ * Lookup获取xxxSuper方法的MethodHandle, 统一适配成(Object, Object[])Object类型
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class MethodHandleFastInvoker extends FastInvoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final MethodHandle[] handles; // 数组下标即方法索引
+
+    private final MethodHandle[] primitiveHandles; // 基本类型返回值的方法: (Object, Arguments)返回值, 参数从Arguments中读取
+
+    MethodHandleFastInvoker(MethodHandles.Lookup lookup, Method[] methods) throws ReflectiveOperationException {
+        Class<?> proxyClass = lookup.lookupClass();
+        this.handles = new MethodHandle[methods.length];
+        this.primitiveHandles = new MethodHandle[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            MethodType methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+            MethodHandle handle = lookup.findVirtual(proxyClass, method.getName() + "Super", methodType);
+            handles[i] = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+            Class<?> returnType = method.getReturnType();
+            if (returnType == int.class || returnType == long.class || returnType == double.class) {
+                primitiveHandles[i] = bindArguments(handle, method.getParameterTypes());
+            }
+        }
+    }
+
+    /**
+     * (代理类, 参数...)返回值 -> (Object, Arguments)返回值: 每个参数通过Arguments对应类型的get方法读取
+     */
+    private static MethodHandle bindArguments(MethodHandle handle, Class<?>[] parameterTypes) throws ReflectiveOperationException {
+        MethodHandle[] getters = new MethodHandle[parameterTypes.length];
+        int[] reorder = new int[parameterTypes.length + 1];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            String name = type.isPrimitive() ? "get" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1) : "get";
+            MethodHandle getter = MethodHandles.publicLookup().findVirtual(Arguments.class, name,
+                MethodType.methodType(type.isPrimitive() ? type : Object.class, int.class));
+            getters[i] = MethodHandles.insertArguments(getter, 1, i).asType(MethodType.methodType(type, Arguments.class));
+            reorder[i + 1] = 1;
+        }
+        MethodHandle filtered = MethodHandles.filterArguments(handle, 1, getters);
+        MethodType type = MethodType.methodType(handle.type().returnType(), Object.class, Arguments.class);
+        return MethodHandles.permuteArguments(filtered.asType(filtered.type().changeParameterType(0, Object.class)), type, reorder);
+    }
+
+    @Override
+    public Object invoke(int index, Object proxy, Object[] args) throws Throwable {
+        if (index < 0 || index >= handles.length) {
+            throw new IllegalArgumentException("Cannot find matching method");
+        }
+        return handles[index].invokeExact(proxy, args);
+    }
+
+    @Override
+    public int invokeInt(int index, Object proxy, Arguments args) throws Throwable {
+        return (int) getPrimitiveHandle(index).invokeExact(proxy, args);
+    }
+
+    @Override
+    public long invokeLong(int index, Object proxy, Arguments args) throws Throwable {
+        return (long) getPrimitiveHandle(index).invokeExact(proxy, args);
+    }
+
+    @Override
+    public double invokeDouble(int index, Object proxy, Arguments args) throws Throwable {
+        return (double) getPrimitiveHandle(index).invokeExact(proxy, args);
+    }
+
+    private MethodHandle getPrimitiveHandle(int index) {
+        if (index < 0 || index >= primitiveHandles.length || primitiveHandles[index] == null) {
+            throw new IllegalArgumentException("Cannot find matching method");
+        }
+        return primitiveHandles[index];
+    }
+}
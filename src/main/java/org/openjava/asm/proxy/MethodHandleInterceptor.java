@@ -0,0 +1,30 @@
+package org.openjava.asm.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * 基于MethodHandle的方法拦截器: 代理类初始化时为每个代理方法绑定一次调用链, 绑定结果存储在代理类的static final字段中,
+ * 代理方法直接通过MethodHandle.invokeExact调用, 不创建参数数组、不对基本类型装箱拆箱, 调用链可被JIT内联
+ *
+ * MethodHandle intercept(Method method, MethodHandle superHandle) {
+ *     if (method.getName().equals("add")) {
+ *         // 参数预处理: add(a, b) -> super.add(a * 2, b)
+ *         return MethodHandles.filterArguments(superHandle, 1, DOUBLE_HANDLE);
+ *     }
+ *     return superHandle;
+ * }
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface MethodHandleInterceptor {
+    /**
+     * 为代理方法绑定调用链
+     *
+     * @param method - 被代理的方法
+     * @param superHandle - 调用超类方法的MethodHandle, 类型为(代理类, 方法参数...)方法返回值
+     * @return 与superHandle类型一致的MethodHandle, 返回superHandle或null表示不拦截该方法
+     */
+    MethodHandle intercept(Method method, MethodHandle superHandle);
+}
@@ -0,0 +1,54 @@
+package org.openjava.asm.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * 基于MethodHandle的ProxyFactory: 用于hidden class代理类, 通过代理类的Lookup获取注入handler构造函数的MethodHandle,
+ * 统一适配成(InvocationHandler, Object[])Object类型
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class MethodHandleProxyFactory extends ProxyFactory {
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, InvocationHandler.class, Object[].class);
+
+    private final MethodHandle[] handles; // 数组下标即构造函数索引
+
+    MethodHandleProxyFactory(MethodHandles.Lookup lookup, Constructor<?>[] constructors) throws ReflectiveOperationException {
+        super(parameterTypes(constructors));
+        Class<?> proxyClass = lookup.lookupClass();
+        this.handles = new MethodHandle[constructors.length];
+        for (int i = 0; i < constructors.length; i++) {
+            MethodType constructorType = MethodType.methodType(void.class, constructors[i].getParameterTypes())
+                .insertParameterTypes(0, InvocationHandler.class);
+            MethodHandle handle = lookup.findConstructor(proxyClass, constructorType);
+            handles[i] = handle.asSpreader(Object[].class, constructors[i].getParameterCount()).asType(FACTORY_TYPE);
+        }
+    }
+
+    @Override
+    public Object newInstance(int index, InvocationHandler handler, Object[] args) {
+        if (index < 0 || index >= handles.length) {
+            throw new IllegalArgumentException("Cannot find matching constructor");
+        }
+        try {
+            return handles[index].invokeExact(handler, args);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new DynamicProxyException(ex);
+        }
+    }
+
+    private static Class<?>[][] parameterTypes(Constructor<?>[] constructors) {
+        Class<?>[][] parameterTypes = new Class<?>[constructors.length][];
+        for (int i = 0; i < constructors.length; i++) {
+            parameterTypes[i] = constructors[i].getParameterTypes();
+        }
+        return parameterTypes;
+    }
+}
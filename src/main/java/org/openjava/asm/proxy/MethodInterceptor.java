@@ -0,0 +1,31 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 方法拦截器: 与InvocationHandler相比, 额外获得MethodProxy, 通过methodProxy.invokeSuper调用超类方法无需反射
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+@FunctionalInterface
+public interface MethodInterceptor extends InvocationHandler {
+    /**
+     * 拦截代理方法
+     *
+     * @param proxy - 代理类对象
+     * @param method - 代理方法
+     * @param args - 方法参数
+     * @param methodProxy - 用于调用超类方法
+     */
+    Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable;
+
+    /**
+     * 代理类总是通过MethodProxy调用intercept方法, 不应直接调用该方法
+     */
+    @Override
+    default Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        throw new UnsupportedOperationException("MethodInterceptor must be invoked through MethodProxy");
+    }
+}
@@ -0,0 +1,138 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * 代理方法描述: 每个代理方法对应一个MethodProxy, 存储在代理类的静态字段中, 通过FastInvoker调用超类方法
+ *
+ * 绑定拦截器链(参见InterceptorBinder)时, 每个拦截器对应一个MethodProxy节点: 节点的invokeSuper调用当前拦截器,
+ * 并将下一个节点传给拦截器; 最后一个节点不包含拦截器, 其invokeSuper调用超类方法
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class MethodProxy {
+    private final Method method;
+    private final FastInvoker invoker;
+    private final int index;
+    private final MethodInterceptor interceptor; // 拦截器链中的当前拦截器, 为null时直接调用超类方法
+    private final MethodProxy next; // 拦截器链中的下一个节点
+
+    public MethodProxy(Method method, FastInvoker invoker, int index) {
+        this(method, invoker, index, null, null);
+    }
+
+    private MethodProxy(Method method, FastInvoker invoker, int index, MethodInterceptor interceptor, MethodProxy next) {
+        this.method = method;
+        this.invoker = invoker;
+        this.index = index;
+        this.interceptor = interceptor;
+        this.next = next;
+    }
+
+    /**
+     * 创建拦截器链: 返回链中的第一个节点
+     */
+    static MethodProxy chain(Method method, FastInvoker invoker, int index, MethodInterceptor[] interceptors) {
+        MethodProxy next = new MethodProxy(method, invoker, index);
+        for (int i = interceptors.length - 1; i >= 0; i--) {
+            next = new MethodProxy(method, invoker, index, interceptors[i], next);
+        }
+        return next;
+    }
+
+    /**
+     * 调用代理类的超类方法, 无反射调用; 位于拦截器链中时调用链中的下一个拦截器
+     */
+    public Object invokeSuper(Object proxy, Object[] args) throws Throwable {
+        if (interceptor != null) {
+            return interceptor.intercept(proxy, method, args, next);
+        }
+        return invoker.invoke(index, proxy, args);
+    }
+
+    /**
+     * 调用返回值为int的超类方法, 参数和返回值不装箱; 位于拦截器链中时转换为参数数组调用下一个拦截器
+     */
+    public int invokeSuperInt(Object proxy, Arguments args) throws Throwable {
+        if (interceptor != null) {
+            return (Integer) invokeSuper(proxy, args.toArray());
+        }
+        return invoker.invokeInt(index, proxy, args);
+    }
+
+    public long invokeSuperLong(Object proxy, Arguments args) throws Throwable {
+        if (interceptor != null) {
+            return (Long) invokeSuper(proxy, args.toArray());
+        }
+        return invoker.invokeLong(index, proxy, args);
+    }
+
+    public double invokeSuperDouble(Object proxy, Arguments args) throws Throwable {
+        if (interceptor != null) {
+            return (Double) invokeSuper(proxy, args.toArray());
+        }
+        return invoker.invokeDouble(index, proxy, args);
+    }
+
+    /**
+     * 代理方法调用入口: MethodInterceptor将获得当前MethodProxy, 普通InvocationHandler保持原有调用方式
+     */
+    public Object invoke(InvocationHandler handler, Object proxy, Object[] args) throws Throwable {
+        if (handler instanceof MethodInterceptor) {
+            return ((MethodInterceptor) handler).intercept(proxy, method, args, this);
+        }
+        return handler.invoke(proxy, method, args);
+    }
+
+    /**
+     * 返回值为int的代理方法调用入口: handler实现IntInvocationHandler时由代理类调用, 调用结束后回收args
+     */
+    public int invokeInt(IntInvocationHandler handler, Object proxy, Arguments args) throws Throwable {
+        try {
+            return handler.invokeInt(proxy, this, args);
+        } finally {
+            args.exit();
+        }
+    }
+
+    public long invokeLong(LongInvocationHandler handler, Object proxy, Arguments args) throws Throwable {
+        try {
+            return handler.invokeLong(proxy, this, args);
+        } finally {
+            args.exit();
+        }
+    }
+
+    public double invokeDouble(DoubleInvocationHandler handler, Object proxy, Arguments args) throws Throwable {
+        try {
+            return handler.invokeDouble(proxy, this, args);
+        } finally {
+            args.exit();
+        }
+    }
+
+    /**
+     * 由代理方法的异常处理器调用: RuntimeException原样返回, Error直接抛出, 其他异常包装为UndeclaredThrowableException;
+     * 所有代理方法共享此方法, 代理方法只需一个异常处理器: throw MethodProxy.undeclaredThrowable(ex)
+     */
+    public static RuntimeException undeclaredThrowable(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new UndeclaredThrowableException(ex);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
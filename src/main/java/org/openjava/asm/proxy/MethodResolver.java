@@ -0,0 +1,123 @@
+package org.openjava.asm.proxy;
+
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 代理方法解析: 解析类及其所有父类、父接口中可被代理类重写的方法, 解析结果按类缓存, 同一个类只反射扫描一次
+ *
+ * 方法以方法名+描述符区分, 子类中的方法优先于父类; 以下方法不能或不需要重写, 对应的方法名+描述符值为null,
+ * 阻止父类中同名同描述符的方法被重写:
+ * 1. final方法
+ * 2. 桥接方法: 桥接方法在超类中调用实际方法, 调用桥接方法时同样会进入实际方法的代理方法
+ * 父类中其他包的包访问权限方法、static方法、private方法和其他合成方法直接忽略
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+final class MethodResolver {
+    private static final ClassValue<Map<String, Method>> resolvedMethods = new ClassValue<Map<String, Method>>() {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> c) {
+            return Collections.unmodifiableMap(resolve(c));
+        }
+    };
+
+    private MethodResolver() {
+    }
+
+    /**
+     * 类中所有可重写的方法: 方法名+描述符 -> 方法, 不能重写的方法对应的值为null; 返回结果可修改
+     */
+    static Map<String, Method> getMethods(Class<?> c) {
+        return new LinkedHashMap<>(resolvedMethods.get(c));
+    }
+
+    static String getMethodKey(Method method) {
+        return method.getName() + Type.getMethodDescriptor(method);
+    }
+
+    private static Map<String, Method> resolve(Class<?> c) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> current = c; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                String methodKey = getMethodKey(method);
+                if (methods.containsKey(methodKey)) { // 子类已重写
+                    continue;
+                }
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers)) {
+                    continue;
+                }
+                if (method.isBridge() || Modifier.isFinal(modifiers)) {
+                    methods.put(methodKey, null);
+                    continue;
+                }
+                if (method.isSynthetic()) {
+                    continue;
+                }
+                if (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers) && !isSamePackage(current, c)) {
+                    continue;
+                }
+                methods.put(methodKey, method);
+            }
+            collectInterfaces(current, interfaces);
+        }
+
+        // 接口中未被类实现的方法: default方法和抽象方法, 子接口中的方法优先
+        for (Class<?> face : interfaces) {
+            for (Method method : face.getDeclaredMethods()) {
+                String methodKey = getMethodKey(method);
+                if (Modifier.isStatic(method.getModifiers()) || method.isSynthetic() && !method.isBridge()) {
+                    continue;
+                }
+                if (methods.containsKey(methodKey)) {
+                    Method resolved = methods.get(methodKey);
+                    if (resolved == null || !resolved.getDeclaringClass().isInterface() || !resolved.getDeclaringClass().isAssignableFrom(face)) {
+                        continue;
+                    }
+                }
+                methods.put(methodKey, method.isBridge() ? null : method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 按广度优先收集所有父接口
+     */
+    private static void collectInterfaces(Class<?> c, Set<Class<?>> interfaces) {
+        List<Class<?>> pending = new ArrayList<>();
+        if (c.isInterface()) {
+            pending.add(c);
+        } else {
+            Collections.addAll(pending, c.getInterfaces());
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            Class<?> face = pending.get(i);
+            if (interfaces.add(face)) {
+                Collections.addAll(pending, face.getInterfaces());
+            }
+        }
+    }
+
+    private static boolean isSamePackage(Class<?> c1, Class<?> c2) {
+        return c1.getClassLoader() == c2.getClassLoader() && getPackageName(c1).equals(getPackageName(c2));
+    }
+
+    private static String getPackageName(Class<?> c) {
+        String name = c.getName();
+        int index = name.lastIndexOf('.');
+        return index < 0 ? "" : name.substring(0, index);
+    }
+}
@@ -0,0 +1,63 @@
+package org.openjava.asm.proxy;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * 预生成(AOT)代理类: 构建时为指定的被代理类生成代理类字节码并写入输出目录, 打包进jar后
+ * AsmProxy(默认方法过滤器且未设置MethodHandleInterceptor)将直接加载预生成的代理类, 启动时无需生成字节码
+ *
+ * 生成的类: HelloService$AotProxy、HelloService$AotProxy$FastInvoker、HelloService$AotProxy$Factory
+ *
+ * 运行: java -cp <classpath> org.openjava.asm.proxy.ProxyAotCompiler <outputDir> <className>...
+ * Gradle: gradle generateProxies, 被代理类通过build.gradle中的aotProxyClasses配置
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class ProxyAotCompiler {
+    private ProxyAotCompiler() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ProxyAotCompiler <outputDir> <className>...");
+            System.exit(1);
+        }
+
+        File outputDir = new File(args[0]);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (int i = 1; i < args.length; i++) {
+            long start = System.nanoTime();
+            Class<?> superClass = Class.forName(args[i], false, classLoader);
+            int classes = generate(superClass, outputDir);
+            System.out.printf("Generated %d classes for %s in %.2fms%n", classes, superClass.getName(), (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    /**
+     * 生成被代理类的代理类字节码, 按包路径写入outputDir
+     *
+     * @return 生成的类文件个数
+     */
+    public static int generate(Class<?> superClass, File outputDir) throws IOException {
+        ProxyClassGenerator.ProxyBuilder builder = ProxyClassGenerator.builder().superClass(superClass)
+            .classLoader(superClass.getClassLoader());
+        Map<String, byte[]> classBytes = builder.generateAotClassBytes();
+        for (Map.Entry<String, byte[]> entry : classBytes.entrySet()) {
+            File file = new File(outputDir, entry.getKey().replace('.', File.separatorChar) + ".class");
+            file.getParentFile().mkdirs();
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+            try {
+                out.write(entry.getValue());
+            } finally {
+                out.close();
+            }
+        }
+        return classBytes.size();
+    }
+}
@@ -0,0 +1,197 @@
+package org.openjava.asm.proxy;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 代理类的引导工具类，由生成的代理类在静态构造函数中调用，不应由业务代码直接调用
+ *
+ * 生成代理类前ProxyClassGenerator将代理类数据(代理方法、拦截器等)按代理类名称注册，
+ * 代理类初始化时通过MethodHandles.lookup()取回并完成绑定，取回后注册数据即被移除;
+ * 预生成(AOT)的代理类没有注册数据, 其FastInvoker通过名称加载
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class ProxyBootstrap {
+    private static final ConcurrentMap<String, ProxyClassData> classDataMap = new ConcurrentHashMap<>();
+
+    private static final MethodHandle ABSTRACT_METHOD_ERROR;
+
+    static {
+        try {
+            ABSTRACT_METHOD_ERROR = MethodHandles.lookup().findStatic(ProxyBootstrap.class, "abstractMethodError",
+                MethodType.methodType(Object.class, String.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private ProxyBootstrap() {
+    }
+
+    /**
+     * 为代理类所有代理方法绑定MethodHandle调用链, 返回的数组顺序与代理方法顺序一致,
+     * MethodHandle类型为(被代理类, 方法参数...)方法返回值
+     */
+    public static MethodHandle[] bindMethods(MethodHandles.Lookup lookup) {
+        Class<?> proxyClass = lookup.lookupClass();
+        ProxyClassData classData = take(proxyClass);
+        Method[] methods = classData.methods;
+        MethodHandleInterceptor interceptor = classData.interceptor;
+
+        MethodHandle[] handles = new MethodHandle[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            handles[i] = bindMethod(lookup, methods[i], interceptor);
+        }
+        return handles;
+    }
+
+    /**
+     * invokedynamic调用模式下代理方法的引导方法: 首次调用代理方法时绑定拦截后的MethodHandle, 拦截器未拦截时为超类方法,
+     * 绑定为常量CallSite后JIT可以内联整个调用链
+     *
+     * @param type - 调用点类型(被代理类, 方法参数...)方法返回值
+     * @param index - 代理方法索引
+     */
+    public static CallSite bindMethod(MethodHandles.Lookup lookup, String name, MethodType type, int index) throws Throwable {
+        Class<?> proxyClass = lookup.lookupClass();
+        ProxyClassData classData = (ProxyClassData) lookup.findStaticGetter(proxyClass, "classData", Object.class).invoke();
+        return new ConstantCallSite(bindMethod(lookup, classData.methods[index], classData.interceptor));
+    }
+
+    /**
+     * 获取代理类注册的数据, 由invokedynamic调用模式的代理类在静态构造函数中保存, 调用点首次调用时使用
+     */
+    public static Object classData(MethodHandles.Lookup lookup) {
+        return take(lookup.lookupClass());
+    }
+
+    /**
+     * 绑定单个代理方法: 超类方法经过拦截器包装, MethodHandle类型为(被代理类, 方法参数...)方法返回值
+     */
+    private static MethodHandle bindMethod(MethodHandles.Lookup lookup, Method method, MethodHandleInterceptor interceptor) {
+        Class<?> proxyClass = lookup.lookupClass();
+        MethodType methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+        MethodHandle superHandle;
+        try {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                // 抽象方法没有超类实现, 调用时抛出AbstractMethodError
+                superHandle = MethodHandles.insertArguments(ABSTRACT_METHOD_ERROR, 0, method.toString())
+                    .asType(MethodType.methodType(method.getReturnType()));
+                superHandle = MethodHandles.dropArguments(superHandle, 0, methodType.insertParameterTypes(0, proxyClass).parameterList());
+            } else {
+                superHandle = lookup.findSpecial(method.getDeclaringClass(), method.getName(), methodType, proxyClass);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new DynamicProxyException("Cannot bind method " + method, ex);
+        }
+        MethodHandle handle = interceptor == null ? null : interceptor.intercept(method, superHandle);
+        // 代理方法以被代理类类型调用, 避免在hidden class中引用代理类自身
+        MethodType exactType = superHandle.type().changeParameterType(0, proxyClass.getSuperclass());
+        return (handle == null ? superHandle : handle).asType(exactType);
+    }
+
+    /**
+     * 获取代理类的FastInvoker, 用于创建代理方法的MethodProxy
+     */
+    public static FastInvoker fastInvoker(MethodHandles.Lookup lookup) {
+        Class<?> proxyClass = lookup.lookupClass();
+        ProxyClassData classData = classDataMap.remove(getClassName(proxyClass));
+        if (classData != null) {
+            return classData.invoker;
+        }
+        // 预生成(AOT)的代理类未注册数据, 通过名称加载代理类$FastInvoker
+        try {
+            Class<?> invokerClass = Class.forName(proxyClass.getName() + "$FastInvoker", true, proxyClass.getClassLoader());
+            return (FastInvoker) invokerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException(proxyClass + " is not an enhanced class", ex);
+        }
+    }
+
+    /**
+     * 延迟解析模式下代理方法invokedynamic的引导方法: 首次调用代理方法时解析对应的xxxSuper方法,
+     * 创建MethodProxy并绑定为常量CallSite, 之后的调用不再经过引导方法
+     *
+     * @param name - 代理类中调用超类方法的xxxSuper方法名
+     * @param methodType - 代理方法的类型
+     * @param index - 代理方法索引, 与FastInvoker中的索引一致
+     */
+    public static CallSite methodProxy(MethodHandles.Lookup lookup, String name, MethodType type, MethodType methodType, int index) throws Throwable {
+        Class<?> proxyClass = lookup.lookupClass();
+        Method superMethod = proxyClass.getDeclaredMethod(name, methodType.parameterArray());
+        FastInvoker invoker = (FastInvoker) lookup.findStaticGetter(proxyClass, "fastInvoker", FastInvoker.class).invoke();
+        return new ConstantCallSite(MethodHandles.constant(MethodProxy.class, new MethodProxy(superMethod, invoker, index)));
+    }
+
+    private static Object abstractMethodError(String method) {
+        throw new AbstractMethodError(method);
+    }
+
+    /**
+     * 为代理类所有代理方法创建绑定拦截器链的MethodProxy, 返回的数组顺序与代理方法顺序一致
+     */
+    public static MethodProxy[] bindInterceptors(MethodHandles.Lookup lookup) {
+        Class<?> proxyClass = lookup.lookupClass();
+        ProxyClassData classData = take(proxyClass);
+        Method[] methods = classData.methods;
+
+        MethodProxy[] methodProxies = new MethodProxy[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            Method superMethod;
+            try {
+                superMethod = proxyClass.getDeclaredMethod(method.getName() + "Super", method.getParameterTypes());
+            } catch (NoSuchMethodException ex) {
+                throw new DynamicProxyException("Cannot bind method " + method, ex);
+            }
+            methodProxies[i] = MethodProxy.chain(superMethod, classData.invoker, i, classData.interceptorChains[i]);
+        }
+        return methodProxies;
+    }
+
+    static void register(String className, ProxyClassData classData) {
+        classDataMap.put(className, classData);
+    }
+
+    static void unregister(String className) {
+        classDataMap.remove(className);
+    }
+
+    private static ProxyClassData take(Class<?> proxyClass) {
+        ProxyClassData classData = classDataMap.remove(getClassName(proxyClass));
+        if (classData == null) {
+            throw new IllegalArgumentException(proxyClass + " is not an enhanced class");
+        }
+        return classData;
+    }
+
+    private static String getClassName(Class<?> proxyClass) {
+        // hidden class的名称包含后缀: java.lang.Object$Proxy1/0x0000000800c01000
+        String className = proxyClass.getName();
+        int index = className.indexOf('/');
+        return index < 0 ? className : className.substring(0, index);
+    }
+
+    static class ProxyClassData {
+        private final Method[] methods;
+        private final MethodHandleInterceptor interceptor;
+        private final FastInvoker invoker;
+        private final MethodInterceptor[][] interceptorChains; // 每个代理方法的拦截器链, 未设置InterceptorBinder时为null
+
+        ProxyClassData(Method[] methods, MethodHandleInterceptor interceptor, FastInvoker invoker, MethodInterceptor[][] interceptorChains) {
+            this.methods = methods;
+            this.interceptor = interceptor;
+            this.invoker = invoker;
+            this.interceptorChains = interceptorChains;
+        }
+    }
+}
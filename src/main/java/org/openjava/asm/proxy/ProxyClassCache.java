@@ -0,0 +1,289 @@
+package org.openjava.asm.proxy;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 全局代理类缓存，参考JDK Proxy的WeakCache实现：(classLoader, key) -> proxyClass
+ *
+ * 一级缓存key为类加载器的弱引用，类加载器被回收后对应的二级缓存将被清除；二级缓存key为ProxyKey，
+ * ProxyKey只持有被代理类、方法过滤器等组件的弱引用，避免缓存反向引用类加载器导致无法回收；缓存值为代理类的弱引用。
+ * 缓存命中时仅两次ConcurrentHashMap.get操作，无锁；未命中时同一(classLoader, key)只会生成一次代理类。
+ * 二级缓存中ProxyKey的组件或代理类被回收后，ProxyKey的弱引用或缓存值进入引用队列，get和size时清除对应的缓存项。
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+final class ProxyClassCache {
+    // 类加载器为bootstrap类加载器(null)时使用的一级缓存key
+    private static final Object NULL_LOADER_KEY = new Object();
+
+    // LoaderKey、已缓存ProxyKey的组件引用及CacheValue共用的引用队列
+    private final ReferenceQueue<Object> refQueue = new ReferenceQueue<>();
+
+    private final ConcurrentMap<Object, ConcurrentMap<ProxyKey, Object>> map = new ConcurrentHashMap<>();
+
+    public Class<?> get(ClassLoader classLoader, ProxyKey key, Supplier<Class<?>> factory) {
+        expungeStaleEntries();
+
+        // 查找时使用不注册ReferenceQueue的临时key
+        ConcurrentMap<ProxyKey, Object> valuesMap = map.get(LoaderKey.valueOf(classLoader, null));
+        if (valuesMap == null) {
+            Object loaderKey = LoaderKey.valueOf(classLoader, refQueue);
+            ConcurrentMap<ProxyKey, Object> oldValuesMap = map.putIfAbsent(loaderKey, valuesMap = new ConcurrentHashMap<>());
+            if (oldValuesMap != null) {
+                valuesMap = oldValuesMap;
+            }
+        }
+
+        Factory newFactory = null;
+        while (true) {
+            Object value = valuesMap.get(key);
+            if (value instanceof CacheValue) {
+                Class<?> proxyClass = ((CacheValue) value).get();
+                if (proxyClass != null) {
+                    return proxyClass;
+                }
+                // 代理类已被回收，移除后重新生成; 不能原地替换，新的Factory需使用新注册的ProxyKey
+                valuesMap.remove(key, value);
+            } else if (value instanceof Factory) {
+                // 其他线程正在生成该代理类, 等待其生成完成
+                Class<?> proxyClass = ((Factory) value).get();
+                if (proxyClass != null) {
+                    return proxyClass;
+                }
+            } else {
+                if (newFactory == null) {
+                    newFactory = new Factory(key.register(valuesMap, refQueue), valuesMap, factory, refQueue);
+                }
+                if (valuesMap.putIfAbsent(newFactory.key, newFactory) == null) {
+                    return newFactory.get();
+                }
+            }
+        }
+    }
+
+    /**
+     * 只查找缓存, 不生成代理类; 缓存未命中或其他线程正在生成时返回null
+     */
+    public Class<?> getIfPresent(ClassLoader classLoader, ProxyKey key) {
+        ConcurrentMap<ProxyKey, Object> valuesMap = map.get(LoaderKey.valueOf(classLoader, null));
+        Object value = valuesMap == null ? null : valuesMap.get(key);
+        return value instanceof CacheValue ? ((CacheValue) value).get() : null;
+    }
+
+    public int size() {
+        expungeStaleEntries();
+        int size = 0;
+        for (ConcurrentMap<ProxyKey, Object> valuesMap : map.values()) {
+            size += valuesMap.size();
+        }
+        return size;
+    }
+
+    private void expungeStaleEntries() {
+        Reference<?> ref;
+        while ((ref = refQueue.poll()) != null) {
+            if (ref instanceof StaleEntry) {
+                ((StaleEntry) ref).expunge();
+            } else {
+                map.remove(ref);
+            }
+        }
+    }
+
+    /**
+     * 生成代理类的工厂, 同一个Factory只会执行一次代理类生成; 生成失败时从缓存中移除自身, 并记录异常,
+     * 等待该Factory的线程抛出DynamicProxyException(原因为该异常), 之后的调用重新生成
+     */
+    private static class Factory {
+        private final ProxyKey key; // 已注册引用队列的ProxyKey
+        private final ConcurrentMap<ProxyKey, Object> valuesMap;
+        private final Supplier<Class<?>> supplier;
+        private final ReferenceQueue<Object> refQueue;
+        private CacheValue value;
+        private Throwable failure;
+
+        Factory(ProxyKey key, ConcurrentMap<ProxyKey, Object> valuesMap, Supplier<Class<?>> supplier, ReferenceQueue<Object> refQueue) {
+            this.key = key;
+            this.valuesMap = valuesMap;
+            this.supplier = supplier;
+            this.refQueue = refQueue;
+        }
+
+        synchronized Class<?> get() {
+            if (value != null) {
+                return value.get();
+            }
+            if (failure != null) {
+                throw new DynamicProxyException("Failed to generate proxy class", failure);
+            }
+            if (valuesMap.get(key) != this) {
+                // 已被其他线程替换或移除, 重新查找缓存
+                return null;
+            }
+
+            Class<?> proxyClass;
+            try {
+                proxyClass = Objects.requireNonNull(supplier.get());
+            } catch (RuntimeException | Error ex) {
+                failure = ex;
+                valuesMap.remove(key, this);
+                throw ex;
+            }
+            value = new CacheValue(proxyClass, key, valuesMap, refQueue);
+            valuesMap.replace(key, this, value);
+            return proxyClass;
+        }
+    }
+
+    /**
+     * 引用队列中对应二级缓存项的弱引用, 引用对象被回收后清除缓存项
+     */
+    private interface StaleEntry {
+        void expunge();
+    }
+
+    private static class CacheValue extends WeakReference<Class<?>> implements StaleEntry {
+        private final ProxyKey key;
+        private final ConcurrentMap<ProxyKey, Object> valuesMap;
+
+        CacheValue(Class<?> proxyClass, ProxyKey key, ConcurrentMap<ProxyKey, Object> valuesMap, ReferenceQueue<Object> refQueue) {
+            super(proxyClass, refQueue);
+            this.key = key;
+            this.valuesMap = valuesMap;
+        }
+
+        @Override
+        public void expunge() {
+            valuesMap.remove(key, this);
+        }
+    }
+
+    /**
+     * 一级缓存key: 类加载器的弱引用, 使用类加载器的identityHashCode和对象相等性比较
+     */
+    private static class LoaderKey extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        private LoaderKey(ClassLoader classLoader, ReferenceQueue<Object> refQueue) {
+            super(classLoader, refQueue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        static Object valueOf(ClassLoader classLoader, ReferenceQueue<Object> refQueue) {
+            return classLoader == null ? NULL_LOADER_KEY : new LoaderKey(classLoader, refQueue);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            ClassLoader classLoader;
+            return obj == this || obj != null && obj.getClass() == this.getClass()
+                && (classLoader = this.get()) != null && classLoader == ((LoaderKey) obj).get();
+        }
+    }
+
+    /**
+     * 二级缓存key: 被代理类及所有影响代理类字节码的组件(methodFilter等), 只持有弱引用, 按对象标识比较;
+     * 查找时使用不注册引用队列的临时key, 放入缓存时通过register复制为注册引用队列的key
+     */
+    static class ProxyKey {
+        private final WeakReference<?> superClass;
+        private final WeakReference<?>[] components; // 组件为null时对应位置为null
+        private final int hash;
+
+        ProxyKey(Class<?> superClass, Object... components) {
+            this.superClass = new WeakReference<>(superClass);
+            this.components = new WeakReference<?>[components.length];
+            int hash = System.identityHashCode(superClass);
+            for (int i = 0; i < components.length; i++) {
+                if (components[i] != null) {
+                    this.components[i] = new WeakReference<>(components[i]);
+                }
+                hash = 31 * hash + System.identityHashCode(components[i]);
+            }
+            this.hash = hash;
+        }
+
+        private ProxyKey(ProxyKey key, ConcurrentMap<ProxyKey, Object> valuesMap, ReferenceQueue<Object> refQueue) {
+            this.superClass = new KeyReference(key.superClass.get(), this, valuesMap, refQueue);
+            this.components = new WeakReference<?>[key.components.length];
+            for (int i = 0; i < components.length; i++) {
+                if (key.components[i] != null) {
+                    this.components[i] = new KeyReference(key.components[i].get(), this, valuesMap, refQueue);
+                }
+            }
+            this.hash = key.hash;
+        }
+
+        /**
+         * 复制为放入缓存的key, 任一组件被回收后从valuesMap中移除该key; 调用方持有所有组件的强引用
+         */
+        ProxyKey register(ConcurrentMap<ProxyKey, Object> valuesMap, ReferenceQueue<Object> refQueue) {
+            return new ProxyKey(this, valuesMap, refQueue);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != ProxyKey.class) {
+                return false;
+            }
+            ProxyKey other = (ProxyKey) obj;
+            Object superClass = this.superClass.get();
+            if (superClass == null || superClass != other.superClass.get() || components.length != other.components.length) {
+                return false;
+            }
+            for (int i = 0; i < components.length; i++) {
+                if (!sameReferent(components[i], other.components[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean sameReferent(WeakReference<?> ref, WeakReference<?> otherRef) {
+            if (ref == null || otherRef == null) {
+                return ref == otherRef;
+            }
+            Object referent = ref.get();
+            return referent != null && referent == otherRef.get();
+        }
+    }
+
+    /**
+     * 已缓存ProxyKey的组件引用, 组件被回收后该key不会再被查找到, 按对象标识移除对应的缓存项
+     */
+    private static class KeyReference extends WeakReference<Object> implements StaleEntry {
+        private final ProxyKey key;
+        private final ConcurrentMap<ProxyKey, Object> valuesMap;
+
+        KeyReference(Object referent, ProxyKey key, ConcurrentMap<ProxyKey, Object> valuesMap, ReferenceQueue<Object> refQueue) {
+            super(referent, refQueue);
+            this.key = key;
+            this.valuesMap = valuesMap;
+        }
+
+        @Override
+        public void expunge() {
+            valuesMap.remove(key);
+        }
+    }
+}
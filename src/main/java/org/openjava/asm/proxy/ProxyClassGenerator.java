@@ -2,33 +2,52 @@ package org.openjava.asm.proxy;
 
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
-import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
- * 代理类生成方案：继承被代理类，重写所有非private构造函数，重写非private且methodFilter过滤之后的方法
+ * 代理类生成方案：继承被代理类，重写所有非private构造函数，重写被代理类及其父类中可重写且methodFilter过滤之后的方法(参见MethodResolver)
+ * 可同时实现多个接口: 接口方法与被代理类方法使用相同的生成方式, 只指定接口时被代理类为Object
+ * 同时生成代理类的FastInvoker(调用超类方法)和ProxyFactory(创建代理类对象)
+ * 使用默认方法过滤器的代理类可由ProxyAotCompiler在构建时预生成(HelloService$AotProxy), 运行时优先加载预生成的代理类
  *
  * public class HellService$Proxy extends HelloService {
  *
  *     private static final ThreadLocal threadHandler;
- *     private static final Method addSuper;
+ *     private static final Method addSuper0; // 字段名包含方法索引, 重载方法不会冲突
+ *     private static final MethodProxy addProxy0;
  *
  *     private InvocationHandler handler = null;
  *
  *     static {
  *         try {
  *             threadHandler = new ThreadLocal();
- *             addSuper = HellService$Proxy.class.getDeclaredMethod("addSuper", int.class, int.class);
+ *             FastInvoker invoker = ProxyBootstrap.fastInvoker(MethodHandles.lookup());
+ *             addSuper0 = HellService$Proxy.class.getDeclaredMethod("addSuper", int.class, int.class);
+ *             addProxy0 = new MethodProxy(addSuper0, invoker, 0);
  *         } catch (NoSuchMethodException mex) {
  *             throw new NoSuchMethodError(mex.getMessage());
  *         }
@@ -39,17 +58,17 @@ import java.util.concurrent.atomic.AtomicLong;
  *         this.handler = (InvocationHandler) threadHandler.get();
  *     }
  *
+ *     public HellService$Proxy(InvocationHandler handler, String word) {
+ *         super(word);
+ *         this.handler = handler;
+ *     }
+ *
  *     public static final void bindHandler(InvocationHandler handler) {
  *         threadHandler.set(handler);
  *     }
  *
- *     public static HellService$Proxy newInstance(String word, InvocationHandler handler) {
- *         bindHandler(handler);
- *         try {
- *             return new HellService$Proxy(word);
- *         } finally {
- *             bindHandler(null);
- *         }
+ *     public static HellService newInstance(String word, InvocationHandler handler) {
+ *         return new HellService$Proxy(handler, word);
  *     }
  *
  *     public final int addSuper(int a, int b) {
@@ -60,24 +79,134 @@ import java.util.concurrent.atomic.AtomicLong;
  *     public final int add(int a, int b) {
  *         try {
  *             if (handler != null) {
- *                 return (int)handler.invoke(HellService$Proxy.this, addSuper, new Object[] {a, b});
+ *                 if (handler instanceof IntInvocationHandler) { // 基本类型返回值的方法: 参数和返回值均不装箱
+ *                     return addProxy0.invokeInt((IntInvocationHandler) handler, HellService$Proxy.this, arguments$II(a, b));
+ *                 }
+ *                 // MethodInterceptor将额外获得addProxy0, 通过addProxy0.invokeSuper调用超类方法无需反射
+ *                 return (int)addProxy0.invoke(handler, HellService$Proxy.this, args$II(a, b));
  *             } else {
- *                 return super.add(a, b);
+ *                 return addSuper(a, b);
  *             }
- *         } catch (RuntimeException | Error rex) {
- *             throw rex;
- *         } catch (Throwable ex) {
- *             throw new UndeclaredThrowableException(ex);
+ *         } catch (Throwable ex) { // RuntimeException和Error原样抛出, 其他异常包装为UndeclaredThrowableException
+ *             throw MethodProxy.undeclaredThrowable(ex);
  *         }
  *     }
+ *
+ *     // 参数打包方法: 参数类型相同的代理方法共享, 代理方法的字节码保持在JIT内联阈值以内
+ *     private static Object[] args$II(int a, int b) {
+ *         return new Object[] {a, b};
+ *     }
+ *
+ *     private static Arguments arguments$II(int a, int b) {
+ *         Arguments args = Arguments.enter(2);
+ *         args.setInt(0, a);
+ *         args.setInt(1, b);
+ *         return args;
+ *     }
  * }
  *
+ * 设置MethodHandleInterceptor时，代理方法通过static final MethodHandle直接调用, 无反射、无参数数组和装箱:
+ *
+ *     private static final MethodHandle addHandle0; // 类型: (HellService, int, int)int
+ *
+ *     static {
+ *         MethodHandle[] handles = ProxyBootstrap.bindMethods(MethodHandles.lookup());
+ *         addHandle0 = handles[0];
+ *     }
+ *
+ *     @Override
+ *     public final int add(int a, int b) {
+ *         return (int) addHandle0.invokeExact(HellService$Proxy.this, a, b);
+ *     }
+ *
+ * 委托模式(delegate)下代理类实现DelegateProxy, 持有volatile的目标对象; xxxSuper方法和未被代理的方法转发给目标对象,
+ * 目标对象为null时调用超类方法:
+ *
+ *     private volatile Object target;
+ *
+ *     public final int addSuper(int a, int b) {
+ *         Object target = this.target;
+ *         return target != null ? ((HelloService) target).add(a, b) : super.add(a, b);
+ *     }
+ *
+ * 可重置模式(resettable)下代理类实现ResettableProxy, 可重新绑定handler和状态对象, 代理类对象可由ProxyPool复用:
+ *
+ *     private Object state;
+ *
+ *     public final void rebind(InvocationHandler handler, Object state) {
+ *         this.handler = handler;
+ *         this.state = state;
+ *     }
+ *
+ * 同时设置invokeDynamic时，代理方法通过invokedynamic调用, 不再生成MethodHandle静态字段; 每个调用点首次调用时
+ * 由ProxyBootstrap.bindMethod绑定为常量CallSite, 拦截器未拦截的方法直接绑定超类方法:
+ *
+ *     private static final Object classData; // ProxyBootstrap中注册的代理类数据
+ *
+ *     @Override
+ *     public final int add(int a, int b) {
+ *         return (int) invokedynamic add(HellService, int, int)int [ProxyBootstrap.bindMethod, 0] (HellService$Proxy.this, a, b);
+ *     }
+ *
+ * 设置InterceptorBinder时，只重写绑定了拦截器的方法, 生成代理类时为每个方法创建拦截器链, 代理方法无handler判断:
+ *
+ *     private static final MethodProxy addProxy0; // 拦截器链的第一个节点
+ *
+ *     static {
+ *         MethodProxy[] methodProxies = ProxyBootstrap.bindInterceptors(MethodHandles.lookup());
+ *         addProxy0 = methodProxies[0];
+ *     }
+ *
+ *     @Override
+ *     public final int add(int a, int b) {
+ *         return (int) addProxy0.invokeSuper(HellService$Proxy.this, new Object[] {a, b});
+ *     }
+ *
+ * 延迟解析代理方法(lazyMethods)时，静态构造函数只获取FastInvoker, 不再为每个方法调用getDeclaredMethod;
+ * 代理方法通过invokedynamic获取MethodProxy, 首次调用时由ProxyBootstrap.methodProxy解析方法并绑定为常量CallSite:
+ *
+ *     private static final FastInvoker fastInvoker;
+ *
+ *     static {
+ *         threadHandler = new ThreadLocal();
+ *         fastInvoker = ProxyBootstrap.fastInvoker(MethodHandles.lookup());
+ *     }
+ *
+ *     @Override
+ *     public final int add(int a, int b) {
+ *         ...
+ *         return (int) invokedynamic addSuper()MethodProxy [ProxyBootstrap.methodProxy, (II)I, 0]
+ *             .invoke(handler, HellService$Proxy.this, new Object[] {a, b});
+ *         ...
+ *     }
+ *
  * @author: brenthuang
  * @date: 2022/04/20
  */
 class ProxyClassGenerator extends AsmClassGenerator {
     private static final AtomicLong nexUniqueNumber = new AtomicLong();
 
+    // 预生成(AOT)代理类名称后缀: HelloService$AotProxy
+    static final String AOT_PROXY_SUFFIX = "$AotProxy";
+
+    // 默认方法过滤器: 全局唯一实例, 保证未设置methodFilter的ProxyBuilder能共享缓存的代理类
+    private static final MethodFilter DEFAULT_METHOD_FILTER = new MethodFilter() {};
+
+    private static final String DELEGATE_PROXY_INTERNAL_NAME = "org/openjava/asm/proxy/DelegateProxy";
+
+    private static final String RESETTABLE_PROXY_INTERNAL_NAME = "org/openjava/asm/proxy/ResettableProxy";
+
+    // 延迟解析模式下代理方法invokedynamic的引导方法: ProxyBootstrap.methodProxy
+    private static final Handle METHOD_PROXY_BOOTSTRAP = new Handle(H_INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "methodProxy",
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodType;I)Ljava/lang/invoke/CallSite;", false);
+
+    // invokedynamic调用模式下代理方法的引导方法: ProxyBootstrap.bindMethod
+    private static final Handle BIND_METHOD_BOOTSTRAP = new Handle(H_INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "bindMethod",
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;I)Ljava/lang/invoke/CallSite;", false);
+
+    // 全局代理类缓存: 相同(superClass, classLoader, methodFilter)的代理类只生成一次
+    private static final ProxyClassCache proxyClassCache = new ProxyClassCache();
+
     private String name; // 被代理类的名称: java.lang.Object
     private String newName; // 代理类名称: java.lang.Object$Proxy
     private String internalName; // 被代理类的内部名称: java/lang/Object
@@ -89,12 +218,27 @@ class ProxyClassGenerator extends AsmClassGenerator {
 
     private Method[] methods = new Method[0];
 
-    private MethodFilter methodFilter = new MethodFilter() {
-        @Override
-        public boolean filter(Class c, Method method) {
-            return method.getDeclaringClass() != Object.class;
-        }
-    };
+    private String[] interfaceNames; // 代理类实现的接口内部名称, 包括接口default方法的声明接口
+
+    private MethodFilter methodFilter = DEFAULT_METHOD_FILTER;
+
+    private MethodHandleInterceptor methodHandleInterceptor; // 不为null时使用MethodHandle直接调用模式
+
+    private InterceptorBinder interceptorBinder; // 不为null时使用拦截器链模式
+
+    private MethodInterceptor[][] interceptorChains; // 每个代理方法绑定的拦截器链, 与methods顺序一致
+
+    private DefineStrategy defineStrategy = DefineStrategy.getDefault();
+
+    private boolean lazyMethods; // 代理方法首次调用时才解析Method并创建MethodProxy
+
+    private boolean invokeDynamic; // MethodHandle调用模式下代理方法通过invokedynamic调用
+
+    private boolean delegate; // 委托模式: 超类方法调用转发给目标对象
+
+    private Method[] forwardMethods = new Method[0]; // 委托模式下未被代理的方法, 直接转发给目标对象
+
+    private boolean resettable; // 可重置模式: 代理类对象可重新绑定handler和状态对象
 
     private ProxyClassGenerator() {
     }
@@ -102,7 +246,7 @@ class ProxyClassGenerator extends AsmClassGenerator {
     @Override
     protected void generateClassCode(ClassVisitor cv) {
         // 类信息
-        cv.visit(V1_8, ACC_PUBLIC + ACC_SUPER, newInternalName, null, internalName, null);
+        cv.visit(V1_8, ACC_PUBLIC + ACC_SUPER, newInternalName, null, internalName, interfaceNames);
 
         // 处理所有静态和非静态成员字段
         generateFieldMembers(cv);
@@ -122,6 +266,16 @@ class ProxyClassGenerator extends AsmClassGenerator {
         // 所有代理方法
         generateMethods(cv);
 
+        // 委托模式: 目标对象的访问方法和直接转发的方法
+        if (delegate) {
+            generateDelegateMethods(cv);
+        }
+
+        // 可重置模式: 重新绑定handler和状态对象的方法
+        if (resettable) {
+            generateResettableMethods(cv);
+        }
+
         cv.visitEnd();
     }
 
@@ -147,9 +301,32 @@ class ProxyClassGenerator extends AsmClassGenerator {
 
     private void generateFieldMembers(ClassVisitor cv) {
         FieldVisitor fv;
-        for (Method method : methods) {
-            // 静态字段信息: 每个代理方法一个静态字段
-            fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, method.getName() + "Super", "Ljava/lang/reflect/Method;", null, null);
+        for (int index = 0; index < methods.length; index++) {
+            // 静态字段信息: 每个代理方法一个静态字段, 字段名包含方法索引, 避免重载方法的字段名冲突
+            if (methodHandleInterceptor != null) {
+                if (invokeDynamic) { // MethodHandle保存在invokedynamic的CallSite中
+                    continue;
+                }
+                fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, getFieldName(index, "Handle"), "Ljava/lang/invoke/MethodHandle;", null, null);
+            } else if (lazyMethods) {
+                // 延迟解析模式: MethodProxy保存在invokedynamic的CallSite中
+                continue;
+            } else {
+                if (interceptorBinder == null) {
+                    fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, getFieldName(index, "Super"), "Ljava/lang/reflect/Method;", null, null);
+                    fv.visitEnd();
+                }
+                fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, getFieldName(index, "Proxy"), "Lorg/openjava/asm/proxy/MethodProxy;", null, null);
+            }
+            fv.visitEnd();
+        }
+
+        if (lazyMethods) {
+            fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "fastInvoker", "Lorg/openjava/asm/proxy/FastInvoker;", null, null);
+            fv.visitEnd();
+        }
+        if (invokeDynamic) {
+            fv = cv.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "classData", "Ljava/lang/Object;", null, null);
             fv.visitEnd();
         }
 
@@ -159,6 +336,17 @@ class ProxyClassGenerator extends AsmClassGenerator {
         // InvocationHandler字段信息
         fv = cv.visitField(ACC_PRIVATE, "handler", "Ljava/lang/reflect/InvocationHandler;", null, null);
         fv.visitEnd();
+
+        if (delegate) {
+            // 目标对象: volatile保证替换后其他线程的调用立即转发给新目标对象
+            fv = cv.visitField(ACC_PRIVATE + ACC_VOLATILE, "target", "Ljava/lang/Object;", null, null);
+            fv.visitEnd();
+        }
+        if (resettable) {
+            // 状态对象: 与handler一同重新绑定
+            fv = cv.visitField(ACC_PRIVATE, "state", "Ljava/lang/Object;", null, null);
+            fv.visitEnd();
+        }
     }
 
     private void generateStaticConstructor(ClassVisitor cv) {
@@ -175,31 +363,74 @@ class ProxyClassGenerator extends AsmClassGenerator {
         mv.visitMethodInsn(INVOKESPECIAL, "java/lang/ThreadLocal", "<init>", "()V", false);
         mv.visitFieldInsn(PUTSTATIC, newInternalName, "threadHandler", "Ljava/lang/ThreadLocal;");
 
-        for (Method method : methods) {
-            // 初始化静态字段
-            mv.visitLdcInsn(Type.getObjectType(newInternalName));
-            mv.visitLdcInsn(method.getName() + "Super");
-            Type[] argumentTypes = Type.getArgumentTypes(method);
-            pushInt(mv, argumentTypes.length);
-            mv.visitTypeInsn(ANEWARRAY, "java/lang/Class");
-            for (int i = 0; i < argumentTypes.length; i++) {
+        if (invokeDynamic) {
+            // invokedynamic调用模式: 保存代理类数据, 调用点首次调用时由ProxyBootstrap.bindMethod读取
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            mv.visitMethodInsn(INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "classData", "(Ljava/lang/invoke/MethodHandles$Lookup;)Ljava/lang/Object;", false);
+            mv.visitFieldInsn(PUTSTATIC, newInternalName, "classData", "Ljava/lang/Object;");
+        } else if (methodHandleInterceptor != null) {
+            // MethodHandle调用模式: 由ProxyBootstrap绑定所有代理方法的MethodHandle
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            mv.visitMethodInsn(INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "bindMethods", "(Ljava/lang/invoke/MethodHandles$Lookup;)[Ljava/lang/invoke/MethodHandle;", false);
+            for (int i = 0; i < methods.length; i++) {
                 mv.visitInsn(DUP);
                 pushInt(mv, i);
-                if (isBoxedType(argumentTypes[i])) {
-                    Type boxedType = getBoxedType(argumentTypes[i]);
-                    mv.visitFieldInsn(GETSTATIC, boxedType.getInternalName(), "TYPE", "Ljava/lang/Class;");
-                } else {
-                    mv.visitLdcInsn(argumentTypes[i]);
+                mv.visitInsn(AALOAD);
+                mv.visitFieldInsn(PUTSTATIC, newInternalName, getFieldName(i, "Handle"), "Ljava/lang/invoke/MethodHandle;");
+            }
+            mv.visitInsn(POP);
+        } else if (interceptorBinder != null) {
+            // 拦截器链模式: 由ProxyBootstrap创建绑定拦截器链的MethodProxy
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            mv.visitMethodInsn(INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "bindInterceptors", "(Ljava/lang/invoke/MethodHandles$Lookup;)[Lorg/openjava/asm/proxy/MethodProxy;", false);
+            for (int i = 0; i < methods.length; i++) {
+                mv.visitInsn(DUP);
+                pushInt(mv, i);
+                mv.visitInsn(AALOAD);
+                mv.visitFieldInsn(PUTSTATIC, newInternalName, getFieldName(i, "Proxy"), "Lorg/openjava/asm/proxy/MethodProxy;");
+            }
+            mv.visitInsn(POP);
+        } else {
+            // 获取FastInvoker对象, 保存在变量表index=1的位置
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            mv.visitMethodInsn(INVOKESTATIC, "org/openjava/asm/proxy/ProxyBootstrap", "fastInvoker", "(Ljava/lang/invoke/MethodHandles$Lookup;)Lorg/openjava/asm/proxy/FastInvoker;", false);
+            if (lazyMethods) {
+                // 延迟解析模式: 保存FastInvoker, 代理方法首次调用时由ProxyBootstrap.methodProxy读取
+                mv.visitFieldInsn(PUTSTATIC, newInternalName, "fastInvoker", "Lorg/openjava/asm/proxy/FastInvoker;");
+            } else {
+                mv.visitVarInsn(ASTORE, 1);
+            }
+            for (int index = 0; !lazyMethods && index < methods.length; index++) {
+                Method method = methods[index];
+                // 初始化静态字段
+                mv.visitLdcInsn(Type.getObjectType(newInternalName));
+                mv.visitLdcInsn(method.getName() + "Super");
+                Type[] argumentTypes = Type.getArgumentTypes(method);
+                pushInt(mv, argumentTypes.length);
+                mv.visitTypeInsn(ANEWARRAY, "java/lang/Class");
+                for (int i = 0; i < argumentTypes.length; i++) {
+                    mv.visitInsn(DUP);
+                    pushInt(mv, i);
+                    pushClass(mv, argumentTypes[i]);
+                    mv.visitInsn(AASTORE);
                 }
-                mv.visitInsn(AASTORE);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Class", "getDeclaredMethod", "(Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;", false);
+                mv.visitFieldInsn(PUTSTATIC, newInternalName, getFieldName(index, "Super"), "Ljava/lang/reflect/Method;");
+                // 初始化MethodProxy静态字段
+                mv.visitTypeInsn(NEW, "org/openjava/asm/proxy/MethodProxy");
+                mv.visitInsn(DUP);
+                mv.visitFieldInsn(GETSTATIC, newInternalName, getFieldName(index, "Super"), "Ljava/lang/reflect/Method;");
+                mv.visitVarInsn(ALOAD, 1);
+                pushInt(mv, index);
+                mv.visitMethodInsn(INVOKESPECIAL, "org/openjava/asm/proxy/MethodProxy", "<init>", "(Ljava/lang/reflect/Method;Lorg/openjava/asm/proxy/FastInvoker;I)V", false);
+                mv.visitFieldInsn(PUTSTATIC, newInternalName, getFieldName(index, "Proxy"), "Lorg/openjava/asm/proxy/MethodProxy;");
             }
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Class", "getDeclaredMethod", "(Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;", false);
-            mv.visitFieldInsn(PUTSTATIC, newInternalName, method.getName() + "Super", "Ljava/lang/reflect/Method;");
         }
         mv.visitLabel(l1);
         Label l3 = new Label();
         mv.visitJumpInsn(GOTO, l3);
         mv.visitLabel(l2);
+        visitFrame(mv, new Object[0], "java/lang/NoSuchMethodException");
         mv.visitVarInsn(ASTORE, 0);
         mv.visitTypeInsn(NEW, "java/lang/NoSuchMethodError");
         mv.visitInsn(DUP);
@@ -208,8 +439,9 @@ class ProxyClassGenerator extends AsmClassGenerator {
         mv.visitMethodInsn(INVOKESPECIAL, "java/lang/NoSuchMethodError", "<init>", "(Ljava/lang/String;)V", false);
         mv.visitInsn(ATHROW);
         mv.visitLabel(l3);
+        visitFrame(mv, new Object[0]);
         mv.visitInsn(RETURN);
-        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
         mv.visitEnd();
     }
 
@@ -237,7 +469,20 @@ class ProxyClassGenerator extends AsmClassGenerator {
             mv.visitTypeInsn(CHECKCAST, "java/lang/reflect/InvocationHandler");
             mv.visitFieldInsn(PUTFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
             mv.visitInsn(RETURN);
-            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitEnd();
+
+            // 注入handler的构造函数: 第一个参数为handler, 无需通过threadHandler绑定
+            mv = cv.visitMethod(constructor.getModifiers(), "<init>", getHandlerConstructorDescriptor(constructor), null, exceptions);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            loadArguments(mv, argumentTypes, 2);
+            mv.visitMethodInsn(INVOKESPECIAL, internalName, "<init>", constructorDesc, false);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitFieldInsn(PUTFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
             mv.visitEnd();
         }
     }
@@ -249,19 +494,20 @@ class ProxyClassGenerator extends AsmClassGenerator {
         mv.visitVarInsn(ALOAD, 0);
         mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/ThreadLocal", "set", "(Ljava/lang/Object;)V", false);
         mv.visitInsn(RETURN);
-        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
         mv.visitEnd();
     }
 
     private void generateNewInstance(ClassVisitor cv) {
         for (Constructor<?> constructor : constructors) {
-            // 方法变量表：构造函数的参数1 2..., handler, 代理类对象, 异常对象
+            // 方法变量表：构造函数的参数1 2..., handler
             // newInstance会调用构造函数，因此构造函数抛出的异常，newInstance同样需要抛出
             String[] exceptions = wrapExceptionTypes(constructor.getExceptionTypes());
             String constructorDesc = Type.getConstructorDescriptor(constructor);
             Type[] constructorArgumentTypes = Type.getArgumentTypes(constructorDesc);
 
-            Type returnType = Type.getObjectType(newInternalName);
+            // 返回类型使用被代理类: hidden class的方法描述符中不能引用自身类名
+            Type returnType = Type.getObjectType(internalName);
             Type[] argumentTypes = new Type[constructorArgumentTypes.length + 1];
             int varIndex = 0;
             for (int i = 0; i < constructorArgumentTypes.length; i++) {
@@ -269,128 +515,445 @@ class ProxyClassGenerator extends AsmClassGenerator {
                 varIndex += argumentTypes[i].getSize();
             }
             argumentTypes[constructorArgumentTypes.length] = Type.getType("Ljava/lang/reflect/InvocationHandler;");
-            int handlerTypeSize = varIndex + argumentTypes[constructorArgumentTypes.length].getSize();
 
-            // 此时varIndex为handler在变量表的存储位置, varIndex + handlerTypeSize为生成的代理类对象在变量表的存储位置
+            // 此时varIndex为handler在变量表的存储位置
             MethodVisitor mv = cv.visitMethod(ACC_PUBLIC + ACC_STATIC, "newInstance", Type.getMethodDescriptor(returnType, argumentTypes), null, exceptions);
             mv.visitCode();
-            Label l0 = new Label();
-            Label l1 = new Label();
-            Label l2 = new Label();
-            mv.visitTryCatchBlock(l0, l1, l2, null);
-            mv.visitVarInsn(ALOAD, varIndex); // 加载handler变量
-            mv.visitMethodInsn(INVOKESTATIC, newInternalName, "bindHandler", "(Ljava/lang/reflect/InvocationHandler;)V", false);
-            mv.visitLabel(l0);
-            mv.visitTypeInsn(NEW, newInternalName); // 创建代理类对象
+            mv.visitTypeInsn(NEW, newInternalName); // 创建代理类对象, 调用注入handler的构造函数
             mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, varIndex); // 加载handler变量
             loadArguments(mv, constructorArgumentTypes, 0); // 加载构造函数所有参数
-            mv.visitMethodInsn(INVOKESPECIAL, newInternalName, "<init>", constructorDesc, false);
-            // 存储代理类对象至本地变量表最后一个index位置, 最后一个参数(handler)后一个位置
-            mv.visitVarInsn(ASTORE, varIndex + handlerTypeSize);
-            mv.visitLabel(l1);
-            mv.visitInsn(ACONST_NULL);
-            mv.visitMethodInsn(INVOKESTATIC, newInternalName, "bindHandler", "(Ljava/lang/reflect/InvocationHandler;)V", false);
-            // 加载代理类对象至操作数栈
-            mv.visitVarInsn(ALOAD, varIndex + handlerTypeSize);
+            mv.visitMethodInsn(INVOKESPECIAL, newInternalName, "<init>", getHandlerConstructorDescriptor(constructor), false);
             mv.visitInsn(ARETURN);
-            mv.visitLabel(l2);
-            mv.visitVarInsn(ASTORE, varIndex + handlerTypeSize + returnType.getSize()); // 存储异常类对象
-            mv.visitInsn(ACONST_NULL);
-            mv.visitMethodInsn(INVOKESTATIC, newInternalName, "bindHandler", "(Ljava/lang/reflect/InvocationHandler;)V", false);
-            mv.visitVarInsn(ALOAD, varIndex + handlerTypeSize + returnType.getSize());
-            mv.visitInsn(ATHROW);
-            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
             mv.visitEnd();
         }
     }
 
     private void generateMethods(ClassVisitor cv) {
-        for (Method method : methods) {
+        if (methodHandleInterceptor != null) {
+            generateMethodHandleMethods(cv);
+            return;
+        }
+
+        Map<String, Type[]> argumentHelpers = new LinkedHashMap<>(); // 共享的参数打包方法: 方法名 -> 参数类型
+        for (int index = 0; index < methods.length; index++) {
+            Method method = methods[index];
             // 生成原生方法：原生方法后缀加Super关键字，并且只调用超类方法 super.methodName()，无其他逻辑
             String[] exceptions = wrapExceptionTypes(method.getExceptionTypes());
             String methodDesc = Type.getMethodDescriptor(method);
-            MethodVisitor mv = cv.visitMethod(method.getModifiers() + ACC_FINAL, method.getName() + "Super", methodDesc, null, exceptions);
+            MethodVisitor mv = cv.visitMethod(getMethodAccess(method), method.getName() + "Super", methodDesc, null, exceptions);
             mv.visitCode();
             Type[] argumentTypes = Type.getArgumentTypes(methodDesc);
             Type returnType = Type.getReturnType(method);
-            mv.visitVarInsn(ALOAD, 0);
-            loadArguments(mv, argumentTypes, 1);
-            mv.visitMethodInsn(INVOKESPECIAL, internalName, method.getName(), methodDesc, false);
-            mv.visitInsn(returnType.getOpcode(IRETURN));
-            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
+            if (invokeSuper(mv, method, argumentTypes)) {
+                mv.visitInsn(returnType.getOpcode(IRETURN));
+            }
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
             mv.visitEnd();
 
-            // 生成代理方法：同方法名
-            mv = cv.visitMethod(method.getModifiers() + ACC_FINAL, method.getName(), methodDesc, null, exceptions);
+            // 生成代理方法：同方法名; 方法体内不修改参数, 跳转目标和异常处理器处的局部变量表均为this和方法参数
+            // 参数打包和异常包装由共享的静态方法完成, 代理方法的字节码不随参数个数明显增长, 便于JIT内联
+            mv = cv.visitMethod(getMethodAccess(method), method.getName(), methodDesc, null, exceptions);
             mv.visitCode();
+            Object[] locals = getFrameLocals(newInternalName, argumentTypes);
             Label l0 = new Label();
             Label l1 = new Label();
             Label l2 = new Label();
-            mv.visitTryCatchBlock(l0, l1, l2, "java/lang/RuntimeException");
-            mv.visitTryCatchBlock(l0, l1, l2, "java/lang/Error");
             Label l3 = new Label();
             Label l4 = new Label();
-            mv.visitTryCatchBlock(l3, l4, l2, "java/lang/RuntimeException");
-            mv.visitTryCatchBlock(l3, l4, l2, "java/lang/Error");
-            Label l5 = new Label();
-            mv.visitTryCatchBlock(l0, l1, l5, "java/lang/Throwable");
-            mv.visitTryCatchBlock(l3, l4, l5, "java/lang/Throwable");
+            mv.visitTryCatchBlock(l0, l1, l2, "java/lang/Throwable");
+            if (interceptorBinder == null) {
+                mv.visitTryCatchBlock(l3, l4, l2, "java/lang/Throwable");
+            }
             mv.visitLabel(l0);
+            if (interceptorBinder == null) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+                mv.visitJumpInsn(IFNULL, l3);
+                generatePrimitiveHandlerCall(mv, index, argumentTypes, returnType, argumentHelpers);
+            }
+            loadMethodProxy(mv, index);
+            if (interceptorBinder == null) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+            }
             mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
-            mv.visitJumpInsn(IFNULL, l3);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETSTATIC, newInternalName, method.getName() + "Super", "Ljava/lang/reflect/Method;");
-            pushInt(mv, argumentTypes.length);
+            packArguments(mv, argumentTypes, "args", argumentHelpers);
+            if (interceptorBinder == null) {
+                mv.visitMethodInsn(INVOKEVIRTUAL, "org/openjava/asm/proxy/MethodProxy", "invoke", "(Ljava/lang/reflect/InvocationHandler;Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", false);
+            } else {
+                // 拦截器链模式: 直接调用链中的第一个拦截器, 无handler判断
+                mv.visitMethodInsn(INVOKEVIRTUAL, "org/openjava/asm/proxy/MethodProxy", "invokeSuper", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", false);
+            }
+            castAndUnbox(mv, returnType);
+            mv.visitLabel(l1);
+            mv.visitInsn(returnType.getOpcode(IRETURN));
+            if (interceptorBinder == null) {
+                // handler为null: 调用xxxSuper方法, 不再重复生成超类调用(及委托模式下的转发)
+                mv.visitLabel(l3);
+                visitFrame(mv, locals);
+                mv.visitVarInsn(ALOAD, 0);
+                loadArguments(mv, argumentTypes, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, newInternalName, method.getName() + "Super", methodDesc, false);
+                mv.visitLabel(l4);
+                mv.visitInsn(returnType.getOpcode(IRETURN));
+            }
+            // 处理异常: RuntimeException和Error原样抛出, 其他异常包装为UndeclaredThrowableException, 参见MethodProxy.undeclaredThrowable
+            mv.visitLabel(l2);
+            visitFrame(mv, locals, "java/lang/Throwable");
+            mv.visitMethodInsn(INVOKESTATIC, "org/openjava/asm/proxy/MethodProxy", "undeclaredThrowable", "(Ljava/lang/Throwable;)Ljava/lang/RuntimeException;", false);
+            mv.visitInsn(ATHROW);
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitEnd();
+        }
+
+        generateArgumentHelpers(cv, argumentHelpers);
+    }
+
+    /**
+     * 将方法参数(变量表从1开始)打包为参数数组(prefix为args)或Arguments(prefix为arguments), 结果压入栈顶;
+     * 参数类型相同(引用类型均视为Object)的代理方法共享同一个静态打包方法, 如: args$IL(int, Object)
+     */
+    private void packArguments(MethodVisitor mv, Type[] argumentTypes, String prefix, Map<String, Type[]> argumentHelpers) {
+        if (argumentTypes.length == 0 && "args".equals(prefix)) {
+            mv.visitInsn(ICONST_0);
             mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+            return;
+        }
+        StringBuilder shape = new StringBuilder(prefix).append('$');
+        Type[] helperTypes = new Type[argumentTypes.length];
+        for (int i = 0; i < argumentTypes.length; i++) {
+            Type type = argumentTypes[i];
+            boolean primitive = type.getSort() != Type.OBJECT && type.getSort() != Type.ARRAY;
+            helperTypes[i] = primitive ? type : Type.getObjectType("java/lang/Object");
+            shape.append(primitive ? type.getDescriptor() : "L");
+        }
+        String helperName = shape.toString();
+        argumentHelpers.putIfAbsent(helperName, helperTypes);
+        loadArguments(mv, argumentTypes, 1);
+        mv.visitMethodInsn(INVOKESTATIC, newInternalName, helperName, getArgumentHelperDescriptor(helperName, helperTypes), false);
+    }
 
-            int varIndex = 1;
-            for (int i = 0; i < argumentTypes.length; i++) {
+    private static String getArgumentHelperDescriptor(String helperName, Type[] helperTypes) {
+        Type returnType = helperName.startsWith("args$") ? Type.getType("[Ljava/lang/Object;") : Type.getObjectType(ARGUMENTS_INTERNAL_NAME);
+        return Type.getMethodDescriptor(returnType, helperTypes);
+    }
+
+    /**
+     * 共享的参数打包方法: args$xxx创建参数数组并装箱基本类型参数, arguments$xxx将参数存入Arguments(不装箱)
+     */
+    private void generateArgumentHelpers(ClassVisitor cv, Map<String, Type[]> argumentHelpers) {
+        for (Map.Entry<String, Type[]> entry : argumentHelpers.entrySet()) {
+            String helperName = entry.getKey();
+            Type[] helperTypes = entry.getValue();
+            boolean array = helperName.startsWith("args$");
+            MethodVisitor mv = cv.visitMethod(ACC_PRIVATE + ACC_STATIC + ACC_SYNTHETIC, helperName, getArgumentHelperDescriptor(helperName, helperTypes), null, null);
+            mv.visitCode();
+            pushInt(mv, helperTypes.length);
+            if (array) {
+                mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, ARGUMENTS_INTERNAL_NAME, "enter", "(I)L" + ARGUMENTS_INTERNAL_NAME + ";", false);
+            }
+            int varIndex = 0;
+            for (int i = 0; i < helperTypes.length; i++) {
                 mv.visitInsn(DUP);
-                pushInt(mv, i); // 数组索引, 从0开始
-                mv.visitVarInsn(argumentTypes[i].getOpcode(ILOAD), varIndex); // 加载变量表中的第2个参数(index=1)，第一个参数是this(index=0)
-                varIndex += argumentTypes[i].getSize();
-                // Object和数组不需要进行box
-                if (argumentTypes[i].getSort() != Type.OBJECT && argumentTypes[i].getSort() != Type.ARRAY) {
-                    if (argumentTypes[i] == Type.VOID_TYPE) {
-                        mv.visitInsn(Opcodes.ACONST_NULL); // Void 则赋值NULL
-                    } else {
-                        Type boxedType = getBoxedType(argumentTypes[i]);
-                        String descriptor = Type.getMethodType(boxedType, new Type[] {argumentTypes[i]}).getDescriptor();
-                        mv.visitMethodInsn(INVOKESTATIC, boxedType.getInternalName(), "valueOf", descriptor, false);
-                    }
+                pushInt(mv, i);
+                mv.visitVarInsn(helperTypes[i].getOpcode(ILOAD), varIndex);
+                varIndex += helperTypes[i].getSize();
+                if (array) {
+                    box(mv, helperTypes[i]);
+                    mv.visitInsn(AASTORE);
+                } else {
+                    storeArgument(mv, helperTypes[i]);
                 }
-                mv.visitInsn(AASTORE); // 为数组i的位置赋值
             }
-            mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/reflect/InvocationHandler", "invoke", "(Ljava/lang/Object;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;", true);
-            castAndUnbox(mv, returnType);
-            mv.visitLabel(l1);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitEnd();
+        }
+    }
+
+    private void generateMethodHandleMethods(ClassVisitor cv) {
+        for (int index = 0; index < methods.length; index++) {
+            Method method = methods[index];
+            // 生成代理方法: 直接调用static final MethodHandle, 异常原样抛出
+            String[] exceptions = wrapExceptionTypes(method.getExceptionTypes());
+            String methodDesc = Type.getMethodDescriptor(method);
+            Type[] argumentTypes = Type.getArgumentTypes(methodDesc);
+            Type returnType = Type.getReturnType(methodDesc);
+            // invokeExact签名多态: 描述符必须与MethodHandle类型(被代理类, 方法参数...)返回值完全一致
+            // 第一个参数不使用代理类: hidden class的方法描述符中不能引用自身类名
+            Type[] handleArgumentTypes = new Type[argumentTypes.length + 1];
+            handleArgumentTypes[0] = Type.getObjectType(internalName);
+            System.arraycopy(argumentTypes, 0, handleArgumentTypes, 1, argumentTypes.length);
+
+            String handleDesc = Type.getMethodDescriptor(returnType, handleArgumentTypes);
+
+            MethodVisitor mv = cv.visitMethod(getMethodAccess(method), method.getName(), methodDesc, null, exceptions);
+            mv.visitCode();
+            if (invokeDynamic) {
+                mv.visitVarInsn(ALOAD, 0);
+                loadArguments(mv, argumentTypes, 1);
+                mv.visitInvokeDynamicInsn(method.getName(), handleDesc, BIND_METHOD_BOOTSTRAP, index);
+            } else {
+                mv.visitFieldInsn(GETSTATIC, newInternalName, getFieldName(index, "Handle"), "Ljava/lang/invoke/MethodHandle;");
+                mv.visitVarInsn(ALOAD, 0);
+                loadArguments(mv, argumentTypes, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/invoke/MethodHandle", "invokeExact", handleDesc, false);
+            }
             mv.visitInsn(returnType.getOpcode(IRETURN));
-            mv.visitLabel(l3);
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitEnd();
+        }
+    }
+
+    /**
+     * 基本类型返回值的方法: handler实现对应的基本类型InvocationHandler(如IntInvocationHandler)时, 参数存入Arguments,
+     * 通过MethodProxy.invokeInt等调用handler, 参数和返回值均不装箱; 否则继续执行后续的InvocationHandler调用
+     */
+    private void generatePrimitiveHandlerCall(MethodVisitor mv, int index, Type[] argumentTypes, Type returnType, Map<String, Type[]> argumentHelpers) {
+        String suffix;
+        switch (returnType.getSort()) {
+            case Type.INT:
+                suffix = "Int";
+                break;
+            case Type.LONG:
+                suffix = "Long";
+                break;
+            case Type.DOUBLE:
+                suffix = "Double";
+                break;
+            default:
+                return;
+        }
+        String handlerName = "org/openjava/asm/proxy/" + suffix + "InvocationHandler";
+        Label l0 = new Label();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+        mv.visitTypeInsn(INSTANCEOF, handlerName);
+        mv.visitJumpInsn(IFEQ, l0);
+        loadMethodProxy(mv, index);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+        mv.visitTypeInsn(CHECKCAST, handlerName);
+        mv.visitVarInsn(ALOAD, 0);
+        packArguments(mv, argumentTypes, "arguments", argumentHelpers);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "org/openjava/asm/proxy/MethodProxy", "invoke" + suffix,
+            "(L" + handlerName + ";Ljava/lang/Object;L" + ARGUMENTS_INTERNAL_NAME + ";)" + returnType.getDescriptor(), false);
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+        mv.visitLabel(l0);
+        visitFrame(mv, getFrameLocals(newInternalName, argumentTypes));
+    }
+
+    /**
+     * 加载代理方法的MethodProxy: 延迟解析模式通过invokedynamic在首次调用时绑定, 否则读取静态字段
+     */
+    private void loadMethodProxy(MethodVisitor mv, int index) {
+        if (!lazyMethods) {
+            mv.visitFieldInsn(GETSTATIC, newInternalName, getFieldName(index, "Proxy"), "Lorg/openjava/asm/proxy/MethodProxy;");
+            return;
+        }
+        Method method = methods[index];
+        mv.visitInvokeDynamicInsn(method.getName() + "Super", "()Lorg/openjava/asm/proxy/MethodProxy;", METHOD_PROXY_BOOTSTRAP,
+            Type.getType(Type.getMethodDescriptor(method)), index);
+    }
+
+    /**
+     * 委托模式: 实现DelegateProxy接口的目标对象访问方法, 生成直接转发给目标对象的方法
+     */
+    private void generateDelegateMethods(ClassVisitor cv) {
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC + ACC_FINAL, "getProxyTarget", "()Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, newInternalName, "target", "Ljava/lang/Object;");
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+
+        mv = cv.visitMethod(ACC_PUBLIC + ACC_FINAL, "setProxyTarget", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        checkTarget(mv);
+        mv.visitFieldInsn(PUTFIELD, newInternalName, "target", "Ljava/lang/Object;");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+
+        // 替换目标对象: 写操作之间通过synchronized互斥, 方法调用读取目标对象无锁
+        mv = cv.visitMethod(ACC_PUBLIC + ACC_FINAL + ACC_SYNCHRONIZED, "swapProxyTarget", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, newInternalName, "target", "Ljava/lang/Object;");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        checkTarget(mv);
+        mv.visitFieldInsn(PUTFIELD, newInternalName, "target", "Ljava/lang/Object;");
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+
+        // 未被代理的方法: 直接转发给目标对象, 目标对象为null时调用超类方法
+        for (Method method : forwardMethods) {
+            String methodDesc = Type.getMethodDescriptor(method);
+            mv = cv.visitMethod(getMethodAccess(method), method.getName(), methodDesc, null, wrapExceptionTypes(method.getExceptionTypes()));
+            mv.visitCode();
+            if (invokeSuper(mv, method, Type.getArgumentTypes(methodDesc))) {
+                mv.visitInsn(Type.getReturnType(methodDesc).getOpcode(IRETURN));
+            }
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+            mv.visitEnd();
+        }
+    }
+
+    /**
+     * 可重置模式: 实现ResettableProxy接口, 重新绑定handler和状态对象
+     */
+    private void generateResettableMethods(ClassVisitor cv) {
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC + ACC_FINAL, "rebind", "(Ljava/lang/reflect/InvocationHandler;Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, newInternalName, "handler", "Ljava/lang/reflect/InvocationHandler;");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(PUTFIELD, newInternalName, "state", "Ljava/lang/Object;");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+
+        mv = cv.visitMethod(ACC_PUBLIC + ACC_FINAL, "getProxyState", "()Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, newInternalName, "state", "Ljava/lang/Object;");
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+    }
+
+    /**
+     * 校验栈顶的目标对象是被代理类及所有代理接口的实例, 目标对象保留在栈顶
+     */
+    private void checkTarget(MethodVisitor mv) {
+        if (!"java/lang/Object".equals(internalName)) {
+            mv.visitTypeInsn(CHECKCAST, internalName);
+        }
+        for (String interfaceName : interfaceNames) {
+            if (!DELEGATE_PROXY_INTERNAL_NAME.equals(interfaceName) && !RESETTABLE_PROXY_INTERNAL_NAME.equals(interfaceName)) {
+                mv.visitTypeInsn(CHECKCAST, interfaceName);
+            }
+        }
+    }
+
+    /**
+     * 调用超类方法: 接口default方法通过接口调用, 抽象方法(接口或抽象类中未实现的方法)抛出AbstractMethodError;
+     * 委托模式下目标对象不为null时转发给目标对象
+     *
+     * @return 调用结束后是否继续执行; 只抛出AbstractMethodError时返回false, 调用方不能再生成return指令(COMPUTE_MAXS不会清除不可达代码)
+     */
+    private boolean invokeSuper(MethodVisitor mv, Method method, Type[] argumentTypes) {
+        Label end = null;
+        Object[] locals = null;
+        if (delegate && canDelegate(method)) {
+            Class<?> declaringClass = method.getDeclaringClass();
+            locals = getFrameLocals(newInternalName, argumentTypes);
+            Label nullTarget = new Label();
+            end = new Label();
             mv.visitVarInsn(ALOAD, 0);
-            loadArguments(mv, argumentTypes, 1);
-            mv.visitMethodInsn(INVOKESPECIAL, internalName, method.getName(), methodDesc, false);
-            mv.visitLabel(l4);
-            mv.visitInsn(returnType.getOpcode(IRETURN));
-            // 处理异常 RuntimeException | Error rex
-            mv.visitLabel(l2);
-            mv.visitVarInsn(ASTORE, varIndex); // 异常保存在变量表中最后一个位置
-            mv.visitVarInsn(ALOAD, varIndex);
-            mv.visitInsn(ATHROW);
-            // 处理异常 Throwable ex
-            mv.visitLabel(l5);
-            mv.visitVarInsn(ASTORE, varIndex);
-            // Throwable传换成UndeclaredThrowableException
-            mv.visitTypeInsn(NEW, "java/lang/reflect/UndeclaredThrowableException");
+            mv.visitFieldInsn(GETFIELD, newInternalName, "target", "Ljava/lang/Object;");
+            mv.visitInsn(DUP);
+            mv.visitJumpInsn(IFNULL, nullTarget);
+            if (declaringClass.isInterface()) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(declaringClass));
+                loadArguments(mv, argumentTypes, 1);
+                mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(declaringClass), method.getName(), Type.getMethodDescriptor(method), true);
+            } else {
+                mv.visitTypeInsn(CHECKCAST, internalName);
+                loadArguments(mv, argumentTypes, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, internalName, method.getName(), Type.getMethodDescriptor(method), false);
+            }
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(nullTarget);
+            visitFrame(mv, locals, "java/lang/Object");
+            mv.visitInsn(POP);
+        }
+        boolean returns = invokeSuperMethod(mv, method, argumentTypes);
+        if (end != null) {
+            returns = true;
+            mv.visitLabel(end);
+            Type returnType = Type.getReturnType(method);
+            if (returnType == Type.VOID_TYPE) {
+                visitFrame(mv, locals);
+            } else {
+                visitFrame(mv, locals, getFrameType(returnType));
+            }
+        }
+        return returns;
+    }
+
+    /**
+     * 目标对象的类型为被代理类, 代理类所在包以外声明的protected方法只能通过代理类自身调用, 不能转发给目标对象
+     */
+    private boolean canDelegate(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        return !Modifier.isProtected(method.getModifiers())
+            || getPackageName(declaringClass).equals(getPackageName(newInternalName.replace('/', '.')));
+    }
+
+    private static String getPackageName(Class<?> c) {
+        return getPackageName(c.getName());
+    }
+
+    private static String getPackageName(String className) {
+        int index = className.lastIndexOf('.');
+        return index < 0 ? "" : className.substring(0, index);
+    }
+
+    private boolean invokeSuperMethod(MethodVisitor mv, Method method, Type[] argumentTypes) {
+        if (Modifier.isAbstract(method.getModifiers())) {
+            mv.visitTypeInsn(NEW, "java/lang/AbstractMethodError");
             mv.visitInsn(DUP);
-            mv.visitVarInsn(ALOAD, varIndex);
-            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/reflect/UndeclaredThrowableException", "<init>", "(Ljava/lang/Throwable;)V", false);
+            mv.visitLdcInsn(method.toString());
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/AbstractMethodError", "<init>", "(Ljava/lang/String;)V", false);
             mv.visitInsn(ATHROW);
-            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
-            mv.visitEnd();
+            return false;
+        }
+        Class<?> declaringClass = method.getDeclaringClass();
+        mv.visitVarInsn(ALOAD, 0);
+        loadArguments(mv, argumentTypes, 1);
+        if (declaringClass.isInterface()) {
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(declaringClass), method.getName(), Type.getMethodDescriptor(method), true);
+        } else {
+            mv.visitMethodInsn(INVOKESPECIAL, internalName, method.getName(), Type.getMethodDescriptor(method), false);
         }
+        return true;
+    }
+
+    /**
+     * 代理方法对应的静态字段名: 方法名 + 后缀 + 方法索引, 如: addProxy0
+     */
+    private String getFieldName(int index, String suffix) {
+        return methods[index].getName() + suffix + index;
+    }
+
+    /**
+     * 代理方法的访问标志: 重写方法不再是abstract或native
+     */
+    private static int getMethodAccess(Method method) {
+        return (method.getModifiers() & ~(ACC_ABSTRACT | ACC_NATIVE)) | ACC_FINAL;
+    }
+
+    /**
+     * 注入handler的构造函数描述符: 在被代理类构造函数参数前增加InvocationHandler参数
+     */
+    static String getHandlerConstructorDescriptor(Constructor<?> constructor) {
+        Type[] argumentTypes = Type.getArgumentTypes(Type.getConstructorDescriptor(constructor));
+        Type[] handlerArgumentTypes = new Type[argumentTypes.length + 1];
+        handlerArgumentTypes[0] = Type.getType("Ljava/lang/reflect/InvocationHandler;");
+        System.arraycopy(argumentTypes, 0, handlerArgumentTypes, 1, argumentTypes.length);
+        return Type.getMethodDescriptor(Type.VOID_TYPE, handlerArgumentTypes);
     }
 
     private String[] wrapExceptionTypes(Class<?>[] exceptionTypes) {
@@ -409,26 +972,42 @@ class ProxyClassGenerator extends AsmClassGenerator {
     }
 
     public class ProxyBuilder {
-        private Class<?> superClass;
-        private WeakReference<Class<?>> cachedProxyClass; // 缓存生成的代理类，严谨的缓存机制参见JDK的Proxy
+        private Class<?> superClass = Object.class;
+        private Class<?>[] interfaces = new Class<?>[0];
+        private WeakReference<Class<?>> cachedProxyClass; // 本地缓存生成的代理类，全局缓存参见ProxyClassCache
 
+        /**
+         * 指定被代理类, 指定接口时等同于superClass(Object.class).interfaces(接口)
+         */
         public synchronized ProxyBuilder superClass(Class<?> superClass) {
             if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
                 throw new UnsupportedOperationException("Cannot change super class");
             }
             if (superClass.isInterface()) {
-                throw new DynamicProxyException("Cannot proxy the interface");
+                return interfaces(superClass);
             }
             if (Modifier.isFinal(superClass.getModifiers())) { // 不存在private的class
                 throw new DynamicProxyException("Cannot subclass final class");
             }
             this.superClass = superClass;
-            // name: java.lang.Object  internalName: java/lang/Object
-            long uniqueNumber = nexUniqueNumber.incrementAndGet();
-            ProxyClassGenerator.this.name = superClass.getName();
-            ProxyClassGenerator.this.newName = ProxyClassGenerator.this.name + "$Proxy" + uniqueNumber;
-            ProxyClassGenerator.this.internalName = Type.getInternalName(superClass);
-            ProxyClassGenerator.this.newInternalName = ProxyClassGenerator.this.internalName + "$Proxy" + uniqueNumber;
+            return this;
+        }
+
+        /**
+         * 代理类额外实现的接口: 接口的抽象方法和default方法都将被代理, 抽象方法未设置handler时抛出AbstractMethodError
+         */
+        public synchronized ProxyBuilder interfaces(Class<?>... interfaces) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change interfaces");
+            }
+            Set<Class<?>> newInterfaces = new LinkedHashSet<>(Arrays.asList(this.interfaces));
+            for (Class<?> face : interfaces) {
+                if (!face.isInterface()) {
+                    throw new DynamicProxyException(face.getName() + " is not an interface");
+                }
+                newInterfaces.add(face);
+            }
+            this.interfaces = newInterfaces.toArray(new Class<?>[0]);
             return this;
         }
 
@@ -448,6 +1027,77 @@ class ProxyClassGenerator extends AsmClassGenerator {
             return this;
         }
 
+        public synchronized ProxyBuilder methodHandleInterceptor(MethodHandleInterceptor interceptor) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change method handle interceptor");
+            }
+            ProxyClassGenerator.this.methodHandleInterceptor = interceptor;
+            return this;
+        }
+
+        public synchronized ProxyBuilder interceptorBinder(InterceptorBinder interceptorBinder) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change interceptor binder");
+            }
+            ProxyClassGenerator.this.interceptorBinder = interceptorBinder;
+            return this;
+        }
+
+        public synchronized ProxyBuilder defineStrategy(DefineStrategy defineStrategy) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change define strategy");
+            }
+            ProxyClassGenerator.this.defineStrategy = defineStrategy;
+            return this;
+        }
+
+        /**
+         * 延迟解析代理方法: 代理类初始化时不再解析所有代理方法, 每个方法首次调用时才创建MethodProxy;
+         * 适用于方法较多但只调用少数方法的被代理类, 仅支持InvocationHandler模式
+         */
+        public synchronized ProxyBuilder lazyMethods(boolean lazyMethods) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change lazy methods");
+            }
+            ProxyClassGenerator.this.lazyMethods = lazyMethods;
+            return this;
+        }
+
+        /**
+         * MethodHandle调用模式下代理方法通过invokedynamic调用: 每个调用点首次调用时绑定拦截后的MethodHandle,
+         * 拦截器未拦截的方法直接绑定超类方法; 需要同时设置MethodHandleInterceptor
+         */
+        public synchronized ProxyBuilder invokeDynamic(boolean invokeDynamic) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change invoke dynamic");
+            }
+            ProxyClassGenerator.this.invokeDynamic = invokeDynamic;
+            return this;
+        }
+
+        /**
+         * 委托模式: 代理类持有目标对象(参见DelegateProxy), 超类方法调用转发给目标对象, 未被代理的方法也直接转发给目标对象;
+         * 不支持MethodHandleInterceptor, 被代理类的final方法无法转发
+         */
+        public synchronized ProxyBuilder delegate(boolean delegate) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change delegate");
+            }
+            ProxyClassGenerator.this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * 可重置模式: 代理类实现ResettableProxy, 可重新绑定handler和状态对象, 用于ProxyPool复用代理类对象
+         */
+        public synchronized ProxyBuilder resettable(boolean resettable) {
+            if (cachedProxyClass != null) { // 一旦生成过代理类，则不允许修改
+                throw new UnsupportedOperationException("Cannot change resettable");
+            }
+            ProxyClassGenerator.this.resettable = resettable;
+            return this;
+        }
+
         public synchronized ProxyBuilder argumentTypes(Class<?>[] argumentTypes) {
             Constructor<?> constructor;
             try {
@@ -464,40 +1114,393 @@ class ProxyClassGenerator extends AsmClassGenerator {
         }
 
         public synchronized Class<?> build() {
+            return build(this::loadOrGenerateProxyClass);
+        }
+
+        /**
+         * 优先从本地缓存和全局缓存中获取, 缓存未命中时才通过factory生成代理类
+         */
+        private synchronized Class<?> build(Supplier<Class<?>> factory) {
+            Class<?> proxyClass = getCachedProxyClass();
+            if (proxyClass == null) {
+                proxyClass = proxyClassCache.get(getClassLoader(), getCacheKey(), factory);
+                cachedProxyClass = new WeakReference<>(proxyClass);
+            }
+            return proxyClass;
+        }
+
+        private synchronized Class<?> getCachedProxyClass() {
             Class<?> proxyClass;
             if (cachedProxyClass != null && (proxyClass = cachedProxyClass.get()) != null) {
                 return proxyClass;
             }
+            return proxyClassCache.getIfPresent(getClassLoader(), getCacheKey());
+        }
+
+        private ProxyClassGenerator getOwner() {
+            return ProxyClassGenerator.this;
+        }
+
+        private ProxyClassCache.ProxyKey getCacheKey() {
+            if (methodHandleInterceptor != null && interceptorBinder != null) {
+                throw new DynamicProxyException("Cannot use both method handle interceptor and interceptor binder");
+            }
+            if (lazyMethods && (methodHandleInterceptor != null || interceptorBinder != null)) {
+                throw new DynamicProxyException("Lazy methods only supported with invocation handler");
+            }
+            if (invokeDynamic && methodHandleInterceptor == null) {
+                throw new DynamicProxyException("Invoke dynamic requires method handle interceptor");
+            }
+            if (delegate && methodHandleInterceptor != null) {
+                throw new DynamicProxyException("Delegate not supported with method handle interceptor");
+            }
+            Object[] components = Arrays.copyOf(interfaces, interfaces.length + 8, Object[].class);
+            components[interfaces.length] = methodFilter;
+            components[interfaces.length + 1] = methodHandleInterceptor;
+            components[interfaces.length + 2] = interceptorBinder;
+            components[interfaces.length + 3] = defineStrategy;
+            components[interfaces.length + 4] = lazyMethods ? Boolean.TRUE : null;
+            components[interfaces.length + 5] = invokeDynamic ? Boolean.TRUE : null;
+            components[interfaces.length + 6] = delegate ? Boolean.TRUE : null;
+            components[interfaces.length + 7] = resettable ? Boolean.TRUE : null;
+            return new ProxyClassCache.ProxyKey(superClass, components);
+        }
+
+        /**
+         * 确定代理类名称, 收集需要重写的构造函数和方法
+         */
+        private void prepare(String newName) {
+            // name: java.lang.Object  internalName: java/lang/Object
+            ProxyClassGenerator.this.name = superClass.getName();
+            ProxyClassGenerator.this.newName = newName;
+            ProxyClassGenerator.this.internalName = Type.getInternalName(superClass);
+            ProxyClassGenerator.this.newInternalName = newName.replace('.', '/');
+
             // 构造函数getDeclaredConstructors() == getConstructors(), 父类的构造函数将忽略; 子类构造函数一定会调用父类的构造函数
             Constructor<?>[] constructors = superClass.getDeclaredConstructors();
             List<Constructor<?>> declaredConstructors = new ArrayList<>();
+            Set<String> constructorDescs = new HashSet<>();
             for (Constructor<?> constructor : constructors) {
                 if (Modifier.isPrivate(constructor.getModifiers())) {
                     continue;
                 }
                 declaredConstructors.add(constructor);
+                constructorDescs.add(Type.getConstructorDescriptor(constructor));
+            }
+            for (Constructor<?> constructor : declaredConstructors) {
+                // 注入handler的构造函数不能与被代理类已有的构造函数冲突
+                if (constructorDescs.contains(getHandlerConstructorDescriptor(constructor))) {
+                    throw new DynamicProxyException("Constructor conflicts with handler constructor: " + constructor);
+                }
             }
             ProxyClassGenerator.this.constructors = declaredConstructors.toArray(new Constructor<?>[0]);
 
-            Method[] methods = superClass.getDeclaredMethods();
-            List<Method> declaredMethods = new ArrayList<>();
-            for (Method method : methods) {
-                if (Modifier.isFinal(method.getModifiers()) || Modifier.isPrivate(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            // 被代理类及其所有父类、父接口中可重写的方法(方法名+描述符 -> 方法), 按类缓存, 参见MethodResolver
+            Map<String, Method> resolvedMethods = MethodResolver.getMethods(superClass);
+            for (Class<?> face : interfaces) {
+                // 接口方法: 被代理类已实现的方法调用被代理类的实现, 否则调用接口的default方法或抛出AbstractMethodError
+                for (Map.Entry<String, Method> entry : MethodResolver.getMethods(face).entrySet()) {
+                    if (!resolvedMethods.containsKey(entry.getKey())) {
+                        resolvedMethods.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            if (delegate) {
+                checkConflicts(resolvedMethods, DelegateProxy.class);
+            }
+            if (resettable) {
+                checkConflicts(resolvedMethods, ResettableProxy.class);
+            }
+
+            Map<String, Method> declaredMethods = new LinkedHashMap<>();
+            List<Method> forwardMethods = new ArrayList<>();
+            Set<Class<?>> implementedInterfaces = new LinkedHashSet<>(Arrays.asList(interfaces));
+            for (Map.Entry<String, Method> entry : resolvedMethods.entrySet()) {
+                Method method = entry.getValue();
+                if (method == null) {
                     continue;
                 }
                 if (methodFilter == null || methodFilter.filter(superClass, method)) {
-                    declaredMethods.add(method);
+                    declaredMethods.put(entry.getKey(), method);
+                } else if (delegate) {
+                    forwardMethods.add(method); // 委托模式下未被代理的方法同样需要转发给目标对象
+                } else {
+                    continue;
+                }
+                if (method.getDeclaringClass().isInterface()) {
+                    // invokespecial调用default方法要求声明接口是代理类的直接父接口
+                    implementedInterfaces.add(method.getDeclaringClass());
+                }
+            }
+
+            List<Method> proxyMethods = new ArrayList<>();
+            List<MethodInterceptor[]> interceptorChains = new ArrayList<>();
+            for (Method method : declaredMethods.values()) {
+                if (interceptorBinder != null) {
+                    // 未绑定拦截器的方法不重写, 直接调用超类方法(委托模式下转发给目标对象); 抽象方法必须重写
+                    MethodInterceptor[] interceptors = interceptorBinder.bind(superClass, method);
+                    if (interceptors == null || interceptors.length == 0) {
+                        if (!Modifier.isAbstract(method.getModifiers())) {
+                            if (delegate) {
+                                forwardMethods.add(method);
+                            }
+                            continue;
+                        }
+                        interceptors = new MethodInterceptor[0];
+                    }
+                    interceptorChains.add(interceptors.clone());
+                }
+                proxyMethods.add(method);
+            }
+            ProxyClassGenerator.this.methods = proxyMethods.toArray(new Method[0]);
+            ProxyClassGenerator.this.interceptorChains = interceptorBinder == null ? null : interceptorChains.toArray(new MethodInterceptor[0][]);
+            ProxyClassGenerator.this.forwardMethods = forwardMethods.toArray(new Method[0]);
+
+            if (delegate) {
+                implementedInterfaces.add(DelegateProxy.class);
+            }
+            if (resettable) {
+                implementedInterfaces.add(ResettableProxy.class);
+            }
+            String[] interfaceNames = new String[implementedInterfaces.size()];
+            int index = 0;
+            for (Class<?> face : implementedInterfaces) {
+                interfaceNames[index++] = Type.getInternalName(face);
+            }
+            ProxyClassGenerator.this.interfaceNames = interfaceNames;
+        }
+
+        /**
+         * 代理类实现的DelegateProxy等接口的方法不能与被代理类的方法冲突
+         */
+        private void checkConflicts(Map<String, Method> resolvedMethods, Class<?> face) {
+            for (Method method : face.getMethods()) {
+                if (resolvedMethods.containsKey(MethodResolver.getMethodKey(method))) {
+                    throw new DynamicProxyException("Method conflicts with " + face.getSimpleName() + ": " + method.getName());
                 }
             }
-            ProxyClassGenerator.this.methods = declaredMethods.toArray(new Method[0]);
+        }
+
+        /**
+         * 代理类与neighbor位于同一个包: 被代理类为Object时使用第一个接口, 避免在java.lang包中定义代理类
+         */
+        private Class<?> getNeighbor() {
+            return superClass == Object.class && interfaces.length > 0 ? interfaces[0] : superClass;
+        }
 
+        /**
+         * 预生成(AOT)的代理类及其FastInvoker、ProxyFactory字节码: 类名 -> 字节码, 只生成字节码不定义类
+         * 仅支持默认选项(参见isAotSupported)的代理类, 运行时由loadOrGenerateProxyClass按名称加载
+         */
+        synchronized Map<String, byte[]> generateAotClassBytes() {
+            if (!isAotSupported()) {
+                throw new DynamicProxyException("AOT proxy only supports default method filter and invocation handler");
+            }
+            prepare(getNeighbor().getName() + AOT_PROXY_SUFFIX);
+            ClassLoader classLoader = getClassLoader();
+            Map<String, byte[]> classBytes = new LinkedHashMap<>();
+            classBytes.put(newName, ProxyClassGenerator.this.generateClassBytes());
+            classBytes.put(newName + "$FastInvoker", new FastInvokerGenerator(newInternalName, ProxyClassGenerator.this.methods, classLoader).generateClassBytes());
+            classBytes.put(newName + "$Factory", new ProxyFactoryGenerator(newInternalName, ProxyClassGenerator.this.constructors, classLoader).generateClassBytes());
+            return classBytes;
+        }
+
+        private Class<?> loadOrGenerateProxyClass() {
+            Class<?> proxyClass = loadAotProxyClass();
+            return proxyClass != null ? proxyClass : generateProxyClass();
+        }
+
+        /**
+         * 加载预生成(AOT)的代理类, 不存在或不匹配时返回null
+         */
+        private Class<?> loadAotProxyClass() {
+            if (!isAotSupported()) {
+                return null;
+            }
             try {
-                proxyClass = ProxyClassGenerator.this.generateClass();
-                cachedProxyClass = new WeakReference<>(proxyClass);
+                Class<?> proxyClass = Class.forName(getNeighbor().getName() + AOT_PROXY_SUFFIX, true, getClassLoader());
+                if (proxyClass.getSuperclass() != superClass || !Arrays.asList(proxyClass.getInterfaces()).containsAll(Arrays.asList(interfaces))) {
+                    return null;
+                }
+                return proxyClass;
+            } catch (ClassNotFoundException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * 预生成的代理类使用默认方法过滤器、InvocationHandler模式和立即解析的代理方法
+         */
+        private boolean isAotSupported() {
+            return methodFilter == DEFAULT_METHOD_FILTER && methodHandleInterceptor == null && interceptorBinder == null && !lazyMethods && !delegate
+                && !resettable;
+        }
+
+        private Class<?> generateProxyClass() {
+            return defineProxyClass(generateProxyBytes());
+        }
+
+        /**
+         * 生成代理类及其FastInvoker、ProxyFactory的字节码, 不定义类; 不同ProxyBuilder可以在多个线程中并行生成
+         */
+        private synchronized GeneratedProxy generateProxyBytes() {
+            long start = System.nanoTime();
+            Class<?> neighbor = getNeighbor();
+            prepare(neighbor.getName() + "$Proxy" + nexUniqueNumber.incrementAndGet());
+            ClassLoader classLoader = getClassLoader();
+            GeneratedProxy generated = new GeneratedProxy(neighbor, defineStrategy.resolve(classLoader, neighbor));
+            generated.proxyBytes = ProxyClassGenerator.this.generateClassBytes();
+            // hidden class无法通过名称引用, 不生成FastInvoker和ProxyFactory类
+            if (generated.strategy != DefineStrategy.HIDDEN) {
+                if (methodHandleInterceptor == null) {
+                    generated.invokerBytes = new FastInvokerGenerator(newInternalName, ProxyClassGenerator.this.methods, classLoader).generateClassBytes();
+                }
+                generated.factoryBytes = new ProxyFactoryGenerator(newInternalName, ProxyClassGenerator.this.constructors, classLoader).generateClassBytes();
+            }
+            generated.generationNanos = System.nanoTime() - start;
+            return generated;
+        }
+
+        /**
+         * 在类加载器中定义生成的代理类并完成初始化, 成功后记录到ProxyRegistry
+         */
+        private Class<?> defineProxyClass(GeneratedProxy generated) {
+            long start = System.nanoTime();
+            Class<?> proxyClass = doDefineProxyClass(generated);
+            ProxyRegistry.getInstance().register(proxyClass, generated.strategy.name(), generated.methods.length, generated.getBytecodeSize(),
+                generated.generationNanos, System.nanoTime() - start);
+            return proxyClass;
+        }
+
+        private Class<?> doDefineProxyClass(GeneratedProxy generated) {
+            ClassLoader classLoader = getClassLoader();
+            DefineStrategy strategy = generated.strategy;
+            try {
+                if (strategy == DefineStrategy.HIDDEN) {
+                    return defineHiddenProxyClass(generated);
+                }
+
+                FastInvoker invoker = null;
+                if (generated.invokerBytes != null) {
+                    // 先定义FastInvoker, 代理类初始化时通过ProxyBootstrap取回FastInvoker对象
+                    Class<?> invokerClass = strategy.defineClass(generated.proxyName + "$FastInvoker", generated.invokerBytes, classLoader, generated.neighbor);
+                    invoker = (FastInvoker) invokerClass.getConstructor().newInstance();
+                }
+                ProxyBootstrap.register(generated.proxyName, new ProxyBootstrap.ProxyClassData(generated.methods, methodHandleInterceptor, invoker, generated.interceptorChains));
+                Class<?> proxyClass = strategy.defineClass(generated.proxyName, generated.proxyBytes, classLoader, generated.neighbor);
+                strategy.initialize(proxyClass);
+                // ProxyFactory在代理类之后定义, 首次调用ProxyFactory.of时加载
+                strategy.defineClass(generated.proxyName + "$Factory", generated.factoryBytes, classLoader, generated.neighbor);
                 return proxyClass;
-            } catch (Exception ex) {
+            } catch (DynamicProxyException dex) {
+                throw dex;
+            } catch (Throwable ex) {
                 throw new DynamicProxyException("dynamic proxy failed", ex);
+            } finally {
+                ProxyBootstrap.unregister(generated.proxyName);
+            }
+        }
+
+        /**
+         * hidden class无法通过名称引用, 使用代理类的Lookup创建基于MethodHandle的FastInvoker和ProxyFactory
+         */
+        private Class<?> defineHiddenProxyClass(GeneratedProxy generated) throws Throwable {
+            DefineStrategy strategy = generated.strategy;
+            Class<?> proxyClass = strategy.defineClass(generated.proxyName, generated.proxyBytes, getClassLoader(), generated.neighbor);
+            MethodHandles.Lookup lookup = DefineStrategy.privateLookupIn(proxyClass);
+            FastInvoker invoker = methodHandleInterceptor == null ? new MethodHandleFastInvoker(lookup, generated.methods) : null;
+            ProxyBootstrap.register(generated.proxyName, new ProxyBootstrap.ProxyClassData(generated.methods, methodHandleInterceptor, invoker, generated.interceptorChains));
+            strategy.initialize(proxyClass);
+            ProxyFactory.register(proxyClass, new MethodHandleProxyFactory(lookup, generated.constructors));
+            return proxyClass;
+        }
+
+        /**
+         * 代理类的字节码及定义代理类需要的数据: 生成后与ProxyClassGenerator的状态无关, 可以在其他线程中定义
+         */
+        private class GeneratedProxy {
+            private final String proxyName = newName;
+            private final Method[] methods = ProxyClassGenerator.this.methods;
+            private final Constructor<?>[] constructors = ProxyClassGenerator.this.constructors;
+            private final MethodInterceptor[][] interceptorChains = ProxyClassGenerator.this.interceptorChains;
+            private final Class<?> neighbor;
+            private final DefineStrategy strategy;
+            private byte[] proxyBytes;
+            private byte[] invokerBytes; // MethodHandle调用模式和hidden class为null
+            private byte[] factoryBytes; // hidden class为null
+            private long generationNanos; // 字节码生成耗时
+
+            GeneratedProxy(Class<?> neighbor, DefineStrategy strategy) {
+                this.neighbor = neighbor;
+                this.strategy = strategy;
+            }
+
+            int getBytecodeSize() {
+                return proxyBytes.length + (invokerBytes == null ? 0 : invokerBytes.length) + (factoryBytes == null ? 0 : factoryBytes.length);
+            }
+        }
+    }
+
+    /**
+     * 批量生成代理类: 先在ForkJoinPool中并行生成所有代理类的字节码, 再按类加载器分组定义代理类,
+     * 不同类加载器的代理类并行定义, 同一个类加载器中的代理类依次定义; 已缓存的代理类不会重复生成
+     */
+    static void buildAll(Collection<ProxyBuilder> builders, ForkJoinPool pool) {
+        // 并行生成字节码: 预生成(AOT)的代理类直接加载
+        List<Callable<Supplier<Class<?>>>> generateTasks = new ArrayList<>();
+        List<ProxyBuilder> pendingBuilders = new ArrayList<>();
+        for (ProxyBuilder builder : builders) {
+            if (builder.getCachedProxyClass() != null) {
+                continue;
+            }
+            pendingBuilders.add(builder);
+            generateTasks.add(() -> {
+                Class<?> proxyClass = builder.loadAotProxyClass();
+                if (proxyClass != null) {
+                    return () -> proxyClass;
+                }
+                ProxyBuilder.GeneratedProxy generated = builder.generateProxyBytes();
+                return () -> builder.defineProxyClass(generated);
+            });
+        }
+        List<Supplier<Class<?>>> factories = invokeAll(pool, generateTasks);
+
+        // 按类加载器分组定义
+        Map<ClassLoader, List<Runnable>> defineGroups = new LinkedHashMap<>();
+        for (int i = 0; i < pendingBuilders.size(); i++) {
+            ProxyBuilder builder = pendingBuilders.get(i);
+            Supplier<Class<?>> factory = factories.get(i);
+            defineGroups.computeIfAbsent(builder.getOwner().getClassLoader(), loader -> new ArrayList<>()).add(() -> builder.build(factory));
+        }
+        List<Callable<Object>> defineTasks = new ArrayList<>();
+        for (List<Runnable> group : defineGroups.values()) {
+            defineTasks.add(() -> {
+                for (Runnable task : group) {
+                    task.run();
+                }
+                return null;
+            });
+        }
+        invokeAll(pool, defineTasks);
+    }
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException iex) {
+                Thread.currentThread().interrupt();
+                throw new DynamicProxyException(iex);
+            } catch (ExecutionException eex) {
+                Throwable cause = eex.getCause();
+                if (cause instanceof DynamicProxyException) {
+                    throw (DynamicProxyException) cause;
+                }
+                throw new DynamicProxyException("dynamic proxy failed", cause);
             }
         }
+        return results;
     }
 }
@@ -0,0 +1,86 @@
+package org.openjava.asm.proxy;
+
+/**
+ * 代理类的生成信息, 由ProxyRegistry记录; 只保存代理类和类加载器的描述, 不引用代理类本身
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class ProxyClassInfo {
+    private final String className;
+    private final String classLoader;
+    private final String defineStrategy;
+    private final int methodCount;
+    private final int bytecodeSize;
+    private final long generationTimeMicros;
+    private final long defineTimeMicros;
+    private final long creationTime;
+
+    ProxyClassInfo(String className, String classLoader, String defineStrategy, int methodCount, int bytecodeSize,
+                   long generationTimeMicros, long defineTimeMicros, long creationTime) {
+        this.className = className;
+        this.classLoader = classLoader;
+        this.defineStrategy = defineStrategy;
+        this.methodCount = methodCount;
+        this.bytecodeSize = bytecodeSize;
+        this.generationTimeMicros = generationTimeMicros;
+        this.defineTimeMicros = defineTimeMicros;
+        this.creationTime = creationTime;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 定义代理类的类加载器描述: 类加载器类名@identityHashCode, bootstrap类加载器为bootstrap
+     */
+    public String getClassLoader() {
+        return classLoader;
+    }
+
+    public String getDefineStrategy() {
+        return defineStrategy;
+    }
+
+    /**
+     * 代理方法数量
+     */
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    /**
+     * 代理类及其FastInvoker、ProxyFactory的字节码总大小(字节)
+     */
+    public int getBytecodeSize() {
+        return bytecodeSize;
+    }
+
+    /**
+     * 字节码生成耗时, 单位微秒
+     */
+    public long getGenerationTimeMicros() {
+        return generationTimeMicros;
+    }
+
+    /**
+     * 类定义及初始化耗时, 单位微秒
+     */
+    public long getDefineTimeMicros() {
+        return defineTimeMicros;
+    }
+
+    /**
+     * 代理类的生成时间, 单位毫秒(System.currentTimeMillis)
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String toString() {
+        return className + "[loader=" + classLoader + ", methods=" + methodCount + ", bytes=" + bytecodeSize
+            + ", generate=" + generationTimeMicros + "us, define=" + defineTimeMicros + "us]";
+    }
+}
@@ -0,0 +1,102 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 代理类对象工厂: 每个代理类生成一个ProxyFactory子类(代理类名$Factory), 根据构造函数索引直接调用代理类
+ * 接收InvocationHandler参数的构造函数, 创建代理类对象时无反射调用、无ThreadLocal绑定
+ *
+ * public final class HellService$Proxy$Factory extends ProxyFactory {
+ *     public HellService$Proxy$Factory() {
+ *         super(new Class[][] {{}, {String.class}});
+ *     }
+ *
+ *     public Object newInstance(int index, InvocationHandler handler, Object[] args) {
+ *         switch (index) {
+ *             case 0:
+ *                 return new HellService$Proxy(handler);
+ *             case 1:
+ *                 return new HellService$Proxy(handler, (String) args[0]);
+ *             default:
+ *                 throw new IllegalArgumentException("Cannot find matching constructor");
+ *         }
+ *     }
+ * }
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public abstract class ProxyFactory {
+    // 由ProxyClassGenerator直接提供的ProxyFactory, 仅在register期间短暂存在
+    private static final ConcurrentMap<Class<?>, ProxyFactory> registeredFactories = new ConcurrentHashMap<>();
+
+    private static final ClassValue<ProxyFactory> factories = new ClassValue<ProxyFactory>() {
+        @Override
+        protected ProxyFactory computeValue(Class<?> proxyClass) {
+            ProxyFactory factory = registeredFactories.get(proxyClass);
+            if (factory != null) {
+                return factory;
+            }
+            try {
+                Class<?> factoryClass = Class.forName(proxyClass.getName() + "$Factory", true, proxyClass.getClassLoader());
+                return (ProxyFactory) factoryClass.getConstructor().newInstance();
+            } catch (ClassNotFoundException cex) {
+                throw new IllegalArgumentException(proxyClass + " is not an enhanced class");
+            } catch (ReflectiveOperationException ex) {
+                throw new DynamicProxyException(ex);
+            }
+        }
+    };
+
+    private static final Class<?>[] EMPTY_TYPES = new Class<?>[0];
+
+    private final Class<?>[][] parameterTypes; // 被代理类构造函数的参数类型, 数组下标即构造函数索引
+
+    protected ProxyFactory(Class<?>[][] parameterTypes) {
+        this.parameterTypes = parameterTypes;
+    }
+
+    /**
+     * 获取代理类的ProxyFactory, 每个代理类只创建一次
+     */
+    public static ProxyFactory of(Class<?> proxyClass) {
+        return factories.get(proxyClass);
+    }
+
+    /**
+     * 为代理类指定ProxyFactory, 用于无法通过名称加载代理类$Factory的场景(如: hidden class)
+     */
+    static void register(Class<?> proxyClass, ProxyFactory factory) {
+        registeredFactories.put(proxyClass, factory);
+        try {
+            factories.get(proxyClass);
+        } finally {
+            registeredFactories.remove(proxyClass);
+        }
+    }
+
+    /**
+     * 根据构造函数参数类型查找构造函数索引, 未找到时返回-1
+     */
+    public int indexOf(Class<?>[] argumentTypes) {
+        Class<?>[] types = argumentTypes == null ? EMPTY_TYPES : argumentTypes;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (Arrays.equals(parameterTypes[i], types)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 创建代理类对象
+     *
+     * @param index - 构造函数索引, 参见indexOf
+     * @param handler - 代理类对象的InvocationHandler
+     * @param args - 构造函数参数
+     */
+    public abstract Object newInstance(int index, InvocationHandler handler, Object[] args);
+}
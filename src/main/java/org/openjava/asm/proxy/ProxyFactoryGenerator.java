@@ -0,0 +1,119 @@
+package org.openjava.asm.proxy;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * 代理类的ProxyFactory生成器: 根据构造函数索引switch直接创建代理类对象, 参见ProxyFactory
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+class ProxyFactoryGenerator extends AsmClassGenerator {
+    private static final String SUPER_NAME = "org/openjava/asm/proxy/ProxyFactory";
+
+    private final String proxyInternalName; // 代理类内部名称: java/lang/Object$Proxy
+    private final Constructor<?>[] constructors; // 被代理类构造函数, 数组下标即构造函数索引
+    private final ClassLoader classLoader;
+
+    ProxyFactoryGenerator(String proxyInternalName, Constructor<?>[] constructors, ClassLoader classLoader) {
+        this.proxyInternalName = proxyInternalName;
+        this.constructors = constructors;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    protected void generateClassCode(ClassVisitor cv) {
+        cv.visit(V1_8, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, getInternalName(), null, SUPER_NAME, null);
+        generateConstructor(cv);
+        generateNewInstance(cv);
+        cv.visitEnd();
+    }
+
+    private void generateConstructor(ClassVisitor cv) {
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        // 所有构造函数的参数类型 new Class[][] {{}, {String.class}}
+        pushInt(mv, constructors.length);
+        mv.visitTypeInsn(ANEWARRAY, "[Ljava/lang/Class;");
+        for (int i = 0; i < constructors.length; i++) {
+            Type[] argumentTypes = Type.getArgumentTypes(Type.getConstructorDescriptor(constructors[i]));
+            mv.visitInsn(DUP);
+            pushInt(mv, i);
+            pushInt(mv, argumentTypes.length);
+            mv.visitTypeInsn(ANEWARRAY, "java/lang/Class");
+            for (int j = 0; j < argumentTypes.length; j++) {
+                mv.visitInsn(DUP);
+                pushInt(mv, j);
+                pushClass(mv, argumentTypes[j]);
+                mv.visitInsn(AASTORE);
+            }
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "([[Ljava/lang/Class;)V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+    }
+
+    private void generateNewInstance(ClassVisitor cv) {
+        // 方法变量表: this, index, handler, args
+        String newInstanceDesc = "(ILjava/lang/reflect/InvocationHandler;[Ljava/lang/Object;)Ljava/lang/Object;";
+        MethodVisitor mv = cv.visitMethod(ACC_PUBLIC, "newInstance", newInstanceDesc, null, null);
+        mv.visitCode();
+        Object[] locals = getFrameLocals(getInternalName(), Type.getArgumentTypes(newInstanceDesc)); // 每个case的栈帧相同
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[constructors.length];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new Label();
+        }
+        if (labels.length > 0) {
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+        }
+        for (int i = 0; i < constructors.length; i++) {
+            Type[] argumentTypes = Type.getArgumentTypes(Type.getConstructorDescriptor(constructors[i]));
+            mv.visitLabel(labels[i]);
+            visitFrame(mv, locals);
+            mv.visitTypeInsn(NEW, proxyInternalName);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 2);
+            for (int j = 0; j < argumentTypes.length; j++) {
+                mv.visitVarInsn(ALOAD, 3);
+                pushInt(mv, j);
+                mv.visitInsn(AALOAD);
+                castAndUnbox(mv, argumentTypes[j]);
+            }
+            mv.visitMethodInsn(INVOKESPECIAL, proxyInternalName, "<init>", ProxyClassGenerator.getHandlerConstructorDescriptor(constructors[i]), false);
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(defaultLabel);
+        visitFrame(mv, locals);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("Cannot find matching constructor");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_MAXS会忽略visitMax中的参数，但必须人工触发调用
+        mv.visitEnd();
+    }
+
+    @Override
+    protected ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    protected String getFullName() {
+        return getInternalName().replace('/', '.');
+    }
+
+    String getInternalName() {
+        return proxyInternalName + "$Factory";
+    }
+}
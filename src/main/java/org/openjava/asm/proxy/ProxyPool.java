@@ -0,0 +1,124 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 可重置代理类对象(参见ResettableProxy)的对象池: 复用请求级别的代理类对象, 避免每次请求都创建新的代理类对象
+ *
+ * 空闲对象保存在按线程分段的槽位数组中, 获取和归还均为无锁CAS操作: 每个线程优先访问自己的分段,
+ * 分段为空(或已满)时依次访问其他分段; 池为空时创建新对象(未命中), 池已满时丢弃归还的对象
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public class ProxyPool {
+    private final Supplier<?> factory;
+    private final AtomicReferenceArray<Object> slots;
+    private final int stripeMask;
+    private final int stripeSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    /**
+     * @param factory 创建代理类对象, 对象必须实现ResettableProxy
+     * @param capacity 池中最多保存的空闲对象数量
+     */
+    public ProxyPool(Supplier<?> factory, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int stripes = Integer.highestOneBit(Math.min(capacity, Runtime.getRuntime().availableProcessors()));
+        this.factory = factory;
+        this.stripeMask = stripes - 1;
+        this.stripeSize = (capacity + stripes - 1) / stripes;
+        this.slots = new AtomicReferenceArray<>(stripes * stripeSize);
+    }
+
+    /**
+     * 获取代理类对象并绑定handler和状态对象, 池为空时创建新对象
+     */
+    public Object acquire(InvocationHandler handler, Object state) {
+        Object proxy = poll();
+        if (proxy != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            proxy = factory.get();
+        }
+        ((ResettableProxy) proxy).rebind(handler, state);
+        return proxy;
+    }
+
+    /**
+     * 归还代理类对象: 解除handler、状态对象(委托模式下还有目标对象)的引用, 池已满时丢弃
+     */
+    public void release(Object proxy) {
+        ((ResettableProxy) proxy).rebind(null, null);
+        if (proxy instanceof DelegateProxy) {
+            ((DelegateProxy) proxy).setProxyTarget(null);
+        }
+        if (!offer(proxy)) {
+            drops.increment();
+        }
+    }
+
+    private Object poll() {
+        int length = slots.length();
+        int start = stripeStart();
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            Object proxy = slots.get(index);
+            if (proxy != null && slots.compareAndSet(index, proxy, null)) {
+                return proxy;
+            }
+        }
+        return null;
+    }
+
+    private boolean offer(Object proxy) {
+        int length = slots.length();
+        int start = stripeStart();
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, proxy)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前线程的分段起始位置: 线程ID散列后取模
+     */
+    private int stripeStart() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash >>> 16) & stripeMask) * stripeSize;
+    }
+
+    /**
+     * 从池中获取到空闲对象的次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 池为空而创建新对象的次数
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 池已满而丢弃归还对象的次数
+     */
+    public long getDropCount() {
+        return drops.sum();
+    }
+}
@@ -0,0 +1,171 @@
+package org.openjava.asm.proxy;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 代理类注册表: 记录每个生成的代理类的字节码大小、生成耗时、方法数量和所属类加载器, 通过JMX发布(参见ProxyRegistryMXBean),
+ * 用于发现长时间运行的服务中代理类泄漏导致的元空间增长
+ *
+ * 注册表只持有代理类的弱引用, 不影响代理类及其类加载器的回收; 代理类被回收后其记录在下一次访问注册表时清除,
+ * 并计入已卸载数量。预生成(AOT)的代理类不经过生成过程, 不记录
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public final class ProxyRegistry implements ProxyRegistryMXBean {
+    public static final String OBJECT_NAME = "org.openjava.asm.proxy:type=ProxyRegistry";
+
+    private static final ProxyRegistry INSTANCE = new ProxyRegistry();
+
+    private final ReferenceQueue<Class<?>> refQueue = new ReferenceQueue<>();
+
+    private final ConcurrentMap<ProxyRecord, Boolean> records = new ConcurrentHashMap<>();
+
+    private final AtomicLong generatedCount = new AtomicLong();
+    private final AtomicLong unloadedCount = new AtomicLong();
+    private final LongAdder liveBytecodeSize = new LongAdder();
+    private final LongAdder totalGenerationNanos = new LongAdder();
+
+    private volatile boolean registered; // 是否已注册到MBeanServer
+
+    private ProxyRegistry() {
+    }
+
+    public static ProxyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 记录生成的代理类, 首次记录时将注册表注册到平台MBeanServer
+     */
+    void register(Class<?> proxyClass, String defineStrategy, int methodCount, int bytecodeSize, long generationNanos, long defineNanos) {
+        expungeStaleRecords();
+        ProxyClassInfo info = new ProxyClassInfo(proxyClass.getName(), describe(proxyClass.getClassLoader()), defineStrategy, methodCount,
+            bytecodeSize, generationNanos / 1000, defineNanos / 1000, System.currentTimeMillis());
+        records.put(new ProxyRecord(proxyClass, info, refQueue), Boolean.TRUE);
+        generatedCount.incrementAndGet();
+        liveBytecodeSize.add(bytecodeSize);
+        totalGenerationNanos.add(generationNanos + defineNanos);
+        if (!registered) {
+            registerMBean();
+        }
+    }
+
+    private synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ex) {
+            // 其他类加载器中的ProxyRegistry已注册, 本注册表仍可通过getInstance访问
+        } catch (Exception | LinkageError ex) {
+            // 没有java.management模块或无权限时不发布JMX, 不影响代理类生成
+        }
+    }
+
+    @Override
+    public int getLiveProxyCount() {
+        expungeStaleRecords();
+        return records.size();
+    }
+
+    @Override
+    public long getGeneratedProxyCount() {
+        return generatedCount.get();
+    }
+
+    @Override
+    public long getUnloadedProxyCount() {
+        expungeStaleRecords();
+        return unloadedCount.get();
+    }
+
+    @Override
+    public long getLiveBytecodeSize() {
+        expungeStaleRecords();
+        return liveBytecodeSize.sum();
+    }
+
+    @Override
+    public long getTotalGenerationTimeMillis() {
+        return totalGenerationNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getMetaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Map<String, Integer> getLiveProxyCountByClassLoader() {
+        expungeStaleRecords();
+        Map<String, Integer> counts = new TreeMap<>();
+        for (ProxyRecord record : records.keySet()) {
+            counts.merge(record.info.getClassLoader(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<ProxyClassInfo> getLiveProxies() {
+        expungeStaleRecords();
+        List<ProxyClassInfo> proxies = new ArrayList<>(records.size());
+        for (ProxyRecord record : records.keySet()) {
+            proxies.add(record.info);
+        }
+        return proxies;
+    }
+
+    /**
+     * 清除已被回收的代理类记录
+     */
+    private void expungeStaleRecords() {
+        Object ref;
+        while ((ref = refQueue.poll()) != null) {
+            ProxyRecord record = (ProxyRecord) ref;
+            if (records.remove(record) != null) {
+                unloadedCount.incrementAndGet();
+                liveBytecodeSize.add(-record.info.getBytecodeSize());
+            }
+        }
+    }
+
+    private static String describe(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return "bootstrap";
+        }
+        return classLoader.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(classLoader));
+    }
+
+    /**
+     * 代理类的弱引用及其生成信息, 按引用相等比较
+     */
+    private static class ProxyRecord extends WeakReference<Class<?>> {
+        private final ProxyClassInfo info;
+
+        ProxyRecord(Class<?> proxyClass, ProxyClassInfo info, ReferenceQueue<Class<?>> refQueue) {
+            super(proxyClass, refQueue);
+            this.info = info;
+        }
+    }
+}
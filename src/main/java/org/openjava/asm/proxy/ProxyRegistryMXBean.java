@@ -0,0 +1,52 @@
+package org.openjava.asm.proxy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 代理类注册表的JMX接口, ObjectName: org.openjava.asm.proxy:type=ProxyRegistry, 参见ProxyRegistry
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface ProxyRegistryMXBean {
+    /**
+     * 已生成且未被卸载的代理类数量
+     */
+    int getLiveProxyCount();
+
+    /**
+     * 累计生成的代理类数量, 包括已卸载的代理类
+     */
+    long getGeneratedProxyCount();
+
+    /**
+     * 已卸载(被GC回收)的代理类数量
+     */
+    long getUnloadedProxyCount();
+
+    /**
+     * 未卸载的代理类及其FastInvoker、ProxyFactory的字节码总大小(字节), 可近似反映代理类占用的元空间
+     */
+    long getLiveBytecodeSize();
+
+    /**
+     * 累计的代理类生成耗时(字节码生成和类定义), 单位毫秒
+     */
+    long getTotalGenerationTimeMillis();
+
+    /**
+     * JVM元空间当前使用量(字节), 与getLiveBytecodeSize对照判断元空间增长是否来自代理类; 无法获取时返回-1
+     */
+    long getMetaspaceUsed();
+
+    /**
+     * 按类加载器统计未卸载的代理类数量: 类加载器描述 -> 代理类数量
+     */
+    Map<String, Integer> getLiveProxyCountByClassLoader();
+
+    /**
+     * 所有未卸载的代理类信息
+     */
+    List<ProxyClassInfo> getLiveProxies();
+}
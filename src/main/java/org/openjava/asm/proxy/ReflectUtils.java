@@ -18,16 +18,30 @@ public class ReflectUtils {
             DEFINE_CLASS = loader.getDeclaredMethod("defineClass", new Class[]{String.class, byte[].class, Integer.TYPE, Integer.TYPE, ProtectionDomain.class});
             DEFINE_CLASS.setAccessible(true);
         } catch (Exception ex) {
-            throw new UnsupportedOperationException("Proxy not supported by jvm");
+            // JDK17+未开放java.lang包时不支持, 由DefineStrategy选择其他策略
+            DEFINE_CLASS = null;
         }
     }
 
+    public static boolean isDefineClassSupported() {
+        return DEFINE_CLASS != null;
+    }
+
     public static Class defineClass(String className, byte[] bytes, ClassLoader loader) throws Exception {
+        return defineClass(className, bytes, loader, true);
+    }
+
+    public static Class defineClass(String className, byte[] bytes, ClassLoader loader, boolean initialize) throws Exception {
+        if (DEFINE_CLASS == null) {
+            throw new UnsupportedOperationException("Proxy not supported by jvm");
+        }
         Object[] args = new Object[]{className, bytes, Integer.valueOf(0), Integer.valueOf(bytes.length), null};
         //TODO: WARNING: An illegal reflective access operation has occurred
         Class c = (Class)DEFINE_CLASS.invoke(loader, args);
-        // Force static initializers to run.
-        Class.forName(className, true, loader);
+        if (initialize) {
+            // Force static initializers to run.
+            Class.forName(className, true, loader);
+        }
         return c;
     }
 
@@ -0,0 +1,24 @@
+package org.openjava.asm.proxy;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * 可重置的代理类实现的接口: 代理类对象可重新绑定handler和状态对象, 用于对象池复用短生命周期的代理类对象(参见ProxyPool)
+ *
+ * handler和状态对象保存在代理类的普通字段中, 重新绑定后由调用方保证发布到其他线程(如ProxyPool的CAS操作);
+ * MethodHandle调用模式和拦截器链模式下代理方法不使用handler, 仅状态对象有效
+ *
+ * @author: brenthuang
+ * @date: 2026/10/18
+ */
+public interface ResettableProxy {
+    /**
+     * 重新绑定handler和状态对象, handler为null时代理方法直接调用超类方法
+     */
+    void rebind(InvocationHandler handler, Object state);
+
+    /**
+     * 获取当前绑定的状态对象, handler可通过代理对象获取本次请求的状态
+     */
+    Object getProxyState();
+}
@@ -6,9 +6,11 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.LocalVariablesSorter;
+import org.openjava.asm.core.SentinelMethodVisitor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ProxyClass implements Opcodes {
     private int version;
@@ -39,7 +41,8 @@ public class ProxyClass implements Opcodes {
 
 //        <E:Ljava/lang/Object;>Ljava/lang/Object;
 //        <E:Ljava/lang/Object;>Lorg/openjava/asm/service/HelloService<TE;>;
-        cv.visit(version, access, name, signature, superName, null);
+        // 代理方法使用invokedynamic获取方法ID, 需要1.7及以上版本的类文件
+        cv.visit((version & 0xFFFF) < V1_7 ? V1_7 : version, access, name, signature, superName, null);
         for (ProxyMethod method : methods) {
             // 忽略异常
             MethodVisitor mv = cv.visitMethod(method.getAccess(), method.getName(), method.getDesc(), method.getSignature(), null);
@@ -66,8 +69,12 @@ public class ProxyClass implements Opcodes {
                 lvs.visitTryCatchBlock(L0, L1, L3, null);
                 lvs.visitTryCatchBlock(L2, L4, L3, null); // 一直没搞懂为啥 L2-L4之间的异常(为啥不是L2-L3呢，换成L3也能正常生成代码)，Handler是L3
 
+                // 方法ID运行时分配, 按代理类记录耗时, 超类方法同时被改写时不重复计数
+                String methodName = name.replace('/', '.') + "." + method.getName() + method.getDesc();
+                long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(method.getThreshold()); // 阀值作为常量写入代理方法
                 int _start = lvs.newLocal(Type.LONG_TYPE);
-                lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
+                int _elapsed = lvs.newLocal(Type.LONG_TYPE); // 正常返回和异常两条路径共用
+                lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
                 lvs.visitVarInsn(LSTORE, _start);
                 lvs.visitLabel(L0);
 
@@ -87,11 +94,7 @@ public class ProxyClass implements Opcodes {
                 }
 
                 lvs.visitLabel(L1);
-                lvs.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-                lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-                lvs.visitVarInsn(LLOAD, _start);
-                lvs.visitInsn(LSUB);
-                lvs.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(J)V", false);
+                SentinelMethodVisitor.visitRecordTiming(lvs, methodName, thresholdNanos, _start, _elapsed);
                 if (_returnValue != -1) {
                     lvs.visitVarInsn(returnType.getOpcode(ILOAD), _returnValue);
                 }
@@ -111,14 +114,11 @@ public class ProxyClass implements Opcodes {
                 lvs.visitVarInsn(ASTORE, _throwable);
 
                 lvs.visitLabel(L4);
-                lvs.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
-                lvs.visitMethodInsn(INVOKESTATIC, "java/lang/System", "currentTimeMillis", "()J", false);
-                lvs.visitVarInsn(LLOAD, _start);
-                lvs.visitInsn(LSUB);
-                lvs.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(J)V", false);
+                SentinelMethodVisitor.visitRecordTiming(lvs, methodName, thresholdNanos, _start, _elapsed);
                 lvs.visitVarInsn(ALOAD, _throwable);
                 lvs.visitInsn(ATHROW);
             }
+            mv.visitMaxs(0, 0); // ClassWriter.COMPUTE_FRAMES会忽略visitMax中的参数，但必须人工触发调用
             mv.visitEnd();
         }
         cv.visitEnd();
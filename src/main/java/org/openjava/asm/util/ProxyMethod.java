@@ -1,11 +1,14 @@
 package org.openjava.asm.util;
 
 public class ProxyMethod {
+    public static final long DEFAULT_THRESHOLD = 10000; // 与SentinelMethod.threshold的默认值一致
+
     private boolean isConstructor;
     private int access;
     private String name;
     private String desc;
     private String signature;
+    private long threshold = DEFAULT_THRESHOLD; // 方法执行时间阀值(毫秒), 取自SentinelMethod.threshold
 
     private ProxyMethod() {
     }
@@ -39,4 +42,12 @@ public class ProxyMethod {
     public String getSignature() {
         return signature;
     }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
 }